@@ -0,0 +1,228 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Targeting accessor that routes each key to one of several underlying sources,
+ * or derives its value from other keys. Each value is computed at most once per
+ * request and memoized in a slot indexed by the key's id.
+ * <p>
+ * The routing is described by a {@link Layout}, which is immutable and shared.
+ * The accessor itself holds the per-request state, so it is not thread-safe;
+ * call {@link #reset()} to reuse it for the next request without allocating.
+ *
+ * @author Simon Trasler
+ * @param <V> The type of the targeting values
+ */
+public class CompositeAccessor<V> implements TargetingAccessor<V> {
+    private final Layout<V> layout;
+    private final List<TargetingAccessor<V>> sources;
+    private final Object[] values;
+
+    // Markers for slots that are not yet resolved, or are being resolved.
+    private static final Object UNRESOLVED = new Object();
+    private static final Object RESOLVING = new Object();
+
+    public CompositeAccessor(Layout<V> layout) {
+        this.layout = layout;
+        this.sources = new ArrayList<>(Collections.nCopies(layout.sourceCount, null));
+        this.values = new Object[layout.keys.length];
+
+        Arrays.fill(values, UNRESOLVED);
+    }
+
+    /**
+     * Bind a source for the current request.
+     *
+     * @param source The index of the source, as used in the Layout
+     * @param accessor The accessor for that source
+     * @return This object
+     */
+    public CompositeAccessor<V> withSource(int source, TargetingAccessor<V> accessor) {
+        sources.set(source, accessor);
+        return this;
+    }
+
+    /**
+     * Discard all memoized values and sources, ready for the next request.
+     *
+     * @return This object
+     */
+    public CompositeAccessor<V> reset() {
+        Arrays.fill(values, UNRESOLVED);
+        Collections.fill(sources, null);
+        return this;
+    }
+
+    @Override
+    public V get(String key) {
+        int id = layout.getId(key);
+        return (id >= 0) ? get(id) : null;
+    }
+
+    /**
+     * Get the value for a key by its id, as returned by
+     * {@link Layout#getId(String)}. This avoids hashing the key.
+     *
+     * @param id The id of the key
+     * @return The value, or null if the source has no value
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        Object value = values[id];
+
+        if (value == RESOLVING) {
+            throw new IllegalStateException("Circular derivation for key:" + layout.keys[id]);
+        } else if (value != UNRESOLVED) {
+            return (V)value;
+        }
+
+        values[id] = RESOLVING;
+
+        V result;
+        Function<TargetingAccessor<V>, V> derivation = layout.derivations.get(id);
+
+        try {
+            if (derivation != null) {
+                // Derived keys may depend on other keys, which are memoized too.
+                result = derivation.apply(this);
+            } else {
+                TargetingAccessor<V> source = sources.get(layout.routes[id]);
+                result = (source != null) ? source.get(layout.keys[id]) : null;
+            }
+        }
+        catch (RuntimeException e) {
+            // Leave the key to be retried, rather than reported as circular.
+            values[id] = UNRESOLVED;
+            throw e;
+        }
+
+        values[id] = result;
+
+        return result;
+    }
+
+    /**
+     * Immutable mapping of keys onto ids, sources and derivations.
+     *
+     * @param <V> The type of the targeting values
+     */
+    public static class Layout<V> {
+        private final Map<String, Integer> ids;
+        private final String[] keys;
+        private final int[] routes;
+        private final List<Function<TargetingAccessor<V>, V>> derivations;
+        private final int sourceCount;
+
+        private Layout(Builder<V> builder) {
+            int size = builder.keys.size();
+
+            this.ids = new HashMap<>();
+            this.keys = builder.keys.toArray(new String[size]);
+            this.routes = new int[size];
+            this.derivations = new ArrayList<>(builder.derivations);
+
+            int maximumSource = -1;
+
+            for (int i = 0; i < size; i++) {
+                ids.put(keys[i], i);
+                routes[i] = builder.routes.get(i);
+                maximumSource = Math.max(maximumSource, routes[i]);
+            }
+
+            this.sourceCount = maximumSource + 1;
+        }
+
+        /**
+         * Get the id of a key, for use with {@link CompositeAccessor#get(int)}.
+         *
+         * @param key The key
+         * @return The id, or -1 if the key is not part of this Layout
+         */
+        public int getId(String key) {
+            Integer id = ids.get(key);
+            return (id != null) ? id : -1;
+        }
+
+        public static class Builder<V> {
+            private final List<String> keys = new ArrayList<>();
+            private final List<Integer> routes = new ArrayList<>();
+            private final List<Function<TargetingAccessor<V>, V>> derivations = new ArrayList<>();
+
+            /**
+             * Route keys to a source. The source is bound per request with
+             * {@link CompositeAccessor#withSource(int, TargetingAccessor)}.
+             *
+             * @param source The index of the source, a small non-negative number
+             * @param keys The keys to be read from this source
+             * @return This object
+             */
+            public Builder<V> withKeys(int source, String... keys) {
+                if (source < 0) {
+                    throw new IllegalArgumentException("Source must not be negative");
+                }
+
+                for (String key : keys) {
+                    add(key, source, null);
+                }
+                return this;
+            }
+
+            /**
+             * Add a key whose value is derived from other keys. The derivation
+             * is only run if the key is requested.
+             *
+             * @param key The key
+             * @param derivation Function from the accessor to the derived value
+             * @return This object
+             */
+            public Builder<V> withDerivedKey(String key, Function<TargetingAccessor<V>, V> derivation) {
+                add(key, -1, derivation);
+                return this;
+            }
+
+            private void add(String key, int source, Function<TargetingAccessor<V>, V> derivation) {
+                if (keys.contains(key)) {
+                    throw new IllegalArgumentException("Duplicate key:" + key);
+                }
+
+                keys.add(key);
+                routes.add(source);
+                derivations.add(derivation);
+            }
+
+            public Layout<V> build() {
+                return new Layout<>(this);
+            }
+        }
+    }
+}
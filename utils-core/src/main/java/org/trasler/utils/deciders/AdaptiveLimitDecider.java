@@ -0,0 +1,295 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decider that limits the number of requests in flight, adapting the limit by
+ * additive increase and multiplicative decrease. The limit backs off on each
+ * failure, and on each success whose latency exceeds the baseline latency by
+ * more than the tolerance, so a downstream is protected as soon as it slows
+ * down rather than only once it fails.
+ * <p>
+ * The baseline tracks a low percentile of latency rather than the minimum, so
+ * a single unusually fast response does not make every later one look slow.
+ * The limit backs off at most once per limit's worth of responses, since the
+ * responses to requests sent before a back off take effect report the same
+ * trouble again.
+ * <p>
+ * Each positive decision takes a slot, which must be returned by exactly one
+ * call to onSuccess or onFailure. The decision path is a single
+ * compare-and-set and never blocks.
+ *
+ * @author Simon Trasler
+ */
+public class AdaptiveLimitDecider implements Decider {
+    private final double minimumLimit;
+    private final double maximumLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final double baselineFall;
+    private final double baselineRise;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong nextBackoff = new AtomicLong();
+
+    // Approximate, so updated without synchronization.
+    private volatile double baselineNanos;
+
+    private AdaptiveLimitDecider(Builder builder) {
+        this.minimumLimit = builder.minimumLimit;
+        this.maximumLimit = builder.maximumLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.tolerance = builder.tolerance;
+        double weight = 1.0 - Ewma.decay(builder.baselineHalflife);
+
+        // Steps in this proportion balance out where the given fraction of
+        // responses is faster than the baseline.
+        this.baselineFall = 1.0 - weight * (1.0 - builder.baselinePercentile);
+        this.baselineRise = 1.0 + weight * builder.baselinePercentile;
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(builder.initialLimit));
+    }
+
+    @Override
+    public boolean decide() {
+        int current = (int)getLimit();
+
+        for (;;) {
+            int count = inFlight.get();
+
+            if (count >= current) {
+                return false;
+            } else if (inFlight.weakCompareAndSetVolatile(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void onSuccess() {
+        release();
+        increase();
+    }
+
+    @Override
+    public void onFailure() {
+        decrease(release());
+    }
+
+    @Override
+    public void onSuccess(long latencyNanos) {
+        long response = release();
+        double baseline = baselineNanos;
+
+        if (baseline == 0.0) {
+            baselineNanos = latencyNanos;
+            increase();
+        } else if (latencyNanos < baseline) {
+            baselineNanos = baseline * baselineFall;
+            increase();
+        } else {
+            baselineNanos = baseline * baselineRise;
+
+            if (latencyNanos > baseline * tolerance) {
+                decrease(response);
+            } else {
+                increase();
+            }
+        }
+    }
+
+    @Override
+    public void onFailure(long latencyNanos) {
+        onFailure();
+    }
+
+    /**
+     * Get the current limit on requests in flight.
+     *
+     * @return The limit
+     */
+    public double getLimit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    /**
+     * Get the number of requests currently in flight.
+     *
+     * @return The number of requests
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the baseline latency that responses are compared against.
+     *
+     * @return The baseline in nanoseconds, or 0.0 before the first response
+     */
+    public double getBaselineNanos() {
+        return baselineNanos;
+    }
+
+    private long release() {
+        inFlight.getAndUpdate(count -> (count > 0) ? count - 1 : 0);
+        return responses.incrementAndGet();
+    }
+
+    private void increase() {
+        long current;
+        long next;
+
+        do {
+            current = limit.get();
+            double value = Double.longBitsToDouble(current);
+
+            // Only grow the limit if it is being used, else it grows unbounded
+            // while traffic is light.
+            if (inFlight.get() * 2 < value || value >= maximumLimit) {
+                return;
+            }
+
+            next = Double.doubleToRawLongBits(Math.min(value + 1.0 / value, maximumLimit));
+        } while (!limit.weakCompareAndSetVolatile(current, next));
+    }
+
+    private void decrease(long response) {
+        long allowed = nextBackoff.get();
+
+        // The responses still to come for requests sent under the current
+        // limit are not evidence of further trouble, so skip past them.
+        if (response < allowed || !nextBackoff.compareAndSet(allowed, response + (long)getLimit())) {
+            return;
+        }
+
+        long current;
+        long next;
+
+        do {
+            current = limit.get();
+            next = Double.doubleToRawLongBits(Math.max(Double.longBitsToDouble(current) * backoffRatio, minimumLimit));
+        } while (!limit.weakCompareAndSetVolatile(current, next));
+    }
+
+    public static class Builder {
+        /**
+         * The limit to start with. Defaults to 20.
+         */
+        private double initialLimit = 20.0;
+
+        /**
+         * The lowest the limit may fall. It must be at least 1.0, so that the
+         * Decider can recover. Defaults to 1.0.
+         */
+        private double minimumLimit = 1.0;
+
+        /**
+         * The highest the limit may rise. Defaults to 1000.
+         */
+        private double maximumLimit = 1000.0;
+
+        /**
+         * The factor applied to the limit on a failure or slow response, at
+         * most once per limit's worth of responses. Defaults to 0.9.
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * How many times slower than the baseline a response may be before it
+         * is considered slow. Defaults to 2.0.
+         */
+        private double tolerance = 2.0;
+
+        /**
+         * The half-life of the movement of the baseline latency, measured in
+         * observations. Defaults to 1000.
+         */
+        private double baselineHalflife = 1000.0;
+
+        /**
+         * The fraction of responses expected to be faster than the baseline.
+         * Each faster response lowers the baseline a little and each slower
+         * one raises it, in proportion so that it settles at this percentile
+         * of latency. Defaults to 0.1.
+         */
+        private double baselinePercentile = 0.1;
+
+        public Builder withInitialLimit(double initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public Builder withMinimumLimit(double minimumLimit) {
+            this.minimumLimit = minimumLimit;
+            return this;
+        }
+
+        public Builder withMaximumLimit(double maximumLimit) {
+            this.maximumLimit = maximumLimit;
+            return this;
+        }
+
+        public Builder withBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        public Builder withTolerance(double tolerance) {
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        public Builder withBaselineHalflife(double baselineHalflife) {
+            this.baselineHalflife = baselineHalflife;
+            return this;
+        }
+
+        public Builder withBaselinePercentile(double baselinePercentile) {
+            this.baselinePercentile = baselinePercentile;
+            return this;
+        }
+
+        public AdaptiveLimitDecider build() {
+            if (minimumLimit < 1.0 || maximumLimit < minimumLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1.0 <= minimum <= maximum");
+            } else if (initialLimit < minimumLimit || initialLimit > maximumLimit) {
+                throw new IllegalArgumentException("Initial limit must be between the minimum and maximum");
+            } else if (!(backoffRatio > 0.0 && backoffRatio < 1.0)) {
+                throw new IllegalArgumentException("Backoff ratio must be between 0.0 and 1.0");
+            } else if (!(tolerance >= 1.0)) {
+                throw new IllegalArgumentException("Tolerance must be at least 1.0");
+            } else if (!(baselineHalflife > 0.0)) {
+                throw new IllegalArgumentException("Baseline halflife must be a positive number");
+            } else if (!(baselinePercentile > 0.0 && baselinePercentile < 1.0)) {
+                throw new IllegalArgumentException("Baseline percentile must be between 0.0 and 1.0");
+            }
+
+            return new AdaptiveLimitDecider(this);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import org.trasler.utils.lang.Randomizer;
+
+/**
+ * Circuit breaker. While closed, every decision is positive, and outcomes are
+ * recorded in a fixed-size ring of recent results. Once the ring holds enough
+ * results and the ratio of failures among them is too high, the breaker opens
+ * and every decision is negative. After a delay it is half-open, admitting
+ * probes at a fixed rate, with a cap on the number in flight: enough
+ * successful probes close it again, while any failed probe re-opens it.
+ * <p>
+ * Each change of state starts a new generation. An outcome reported with
+ * onSuccess or onFailure counts towards the current generation, so a late
+ * response to a request made before a change can be mistaken for a probe.
+ * Callers that can carry a tag from decision to outcome should use
+ * decideTagged with onSuccessTagged and onFailureTagged instead, so that
+ * outcomes from an earlier generation are ignored.
+ * <p>
+ * The state and the ring are updated with atomic operations only; a decision
+ * while closed is a single volatile read.
+ *
+ * @author Simon Trasler
+ */
+public class CircuitBreakerDecider implements Decider {
+    private final int windowSize;
+    private final int minimumVolume;
+    private final double failureRatio;
+    private final long openNanos;
+    private final double probeRate;
+    private final int probeSuccesses;
+    private final int maximumProbes;
+    private final LongSupplier nanoClock;
+
+    // Ring of recent outcomes, one bit per outcome, set for a failure.
+    private final long[] window;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private final AtomicReference<Status> status = new AtomicReference<>(new Status(State.CLOSED, 0L, 0L));
+
+    private static final VarHandle WINDOW = MethodHandles.arrayElementVarHandle(long[].class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * One generation of the breaker. It is replaced as a whole on each change
+     * of state, so the time it opened and its probe counts are published with
+     * the state itself, and cannot be touched by a later generation.
+     */
+    private static class Status {
+        private final State state;
+        private final long generation;
+        private final long openedAt;
+        private final AtomicInteger probes = new AtomicInteger();
+        private final AtomicInteger successes = new AtomicInteger();
+
+        private Status(State state, long generation, long openedAt) {
+            this.state = state;
+            this.generation = generation;
+            this.openedAt = openedAt;
+        }
+    }
+
+    private CircuitBreakerDecider(Builder builder) {
+        this.windowSize = builder.windowSize;
+        this.minimumVolume = builder.minimumVolume;
+        this.failureRatio = builder.failureRatio;
+        this.openNanos = builder.openDuration.toNanos();
+        this.probeRate = builder.probeRate;
+        this.probeSuccesses = builder.probeSuccesses;
+        this.maximumProbes = builder.maximumProbes;
+        this.nanoClock = builder.nanoClock;
+        this.window = new long[(windowSize + 63) >>> 6];
+    }
+
+    @Override
+    public boolean decide() {
+        return decideTagged() >= 0L;
+    }
+
+    /**
+     * Make a new decision, tagged with the generation it was made in. The
+     * outcome should be reported with onSuccessTagged or onFailureTagged.
+     *
+     * @return The tag for a positive decision, or -1 for a negative one
+     */
+    public long decideTagged() {
+        Status current = status.get();
+
+        switch (current.state) {
+            case CLOSED -> {
+                return current.generation;
+            }
+            case OPEN -> {
+                if (nanoClock.getAsLong() - current.openedAt < openNanos) {
+                    return -1L;
+                }
+
+                // Whether or not this thread wins, the breaker has moved on.
+                status.compareAndSet(current, new Status(State.HALF_OPEN, current.generation + 1, current.openedAt));
+                return decideTagged();
+            }
+            default -> {
+                return probe(current) ? current.generation : -1L;
+            }
+        }
+    }
+
+    @Override
+    public void onSuccess() {
+        succeed(status.get());
+    }
+
+    @Override
+    public void onFailure() {
+        fail(status.get());
+    }
+
+    /**
+     * Signal a success for a decision made by decideTagged. It is ignored if
+     * the breaker has changed state since.
+     *
+     * @param tag The tag returned with the decision
+     */
+    public void onSuccessTagged(long tag) {
+        Status current = status.get();
+
+        if (current.generation == tag) {
+            succeed(current);
+        }
+    }
+
+    /**
+     * Signal a failure for a decision made by decideTagged. It is ignored if
+     * the breaker has changed state since.
+     *
+     * @param tag The tag returned with the decision
+     */
+    public void onFailureTagged(long tag) {
+        Status current = status.get();
+
+        if (current.generation == tag) {
+            fail(current);
+        }
+    }
+
+    /**
+     * Get the current state of the breaker. An open breaker whose delay has
+     * expired is reported as open until the next decision.
+     *
+     * @return The state
+     */
+    public State getState() {
+        return status.get().state;
+    }
+
+    private void succeed(Status current) {
+        switch (current.state) {
+            case CLOSED -> {
+                record(false);
+            }
+            case HALF_OPEN -> {
+                if (release(current) && current.successes.incrementAndGet() >= probeSuccesses) {
+                    transition(current, State.CLOSED);
+                }
+            }
+            default -> {
+                // Late response to a request made before the breaker opened.
+            }
+        }
+    }
+
+    private void fail(Status current) {
+        switch (current.state) {
+            case CLOSED -> {
+                record(true);
+
+                if (isTripped()) {
+                    transition(current, State.OPEN);
+                }
+            }
+            case HALF_OPEN -> {
+                if (release(current)) {
+                    transition(current, State.OPEN);
+                }
+            }
+            default -> {
+                // Late response to a request made before the breaker opened.
+            }
+        }
+    }
+
+    private boolean probe(Status current) {
+        if (!Randomizer.decide(probeRate)) {
+            return false;
+        }
+
+        for (;;) {
+            int count = current.probes.get();
+
+            if (count >= maximumProbes) {
+                return false;
+            } else if (current.probes.weakCompareAndSetVolatile(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Account for the outcome of a probe. With no probe in flight, the outcome
+     * is not for a probe, and must not count towards closing or re-opening.
+     */
+    private boolean release(Status current) {
+        for (;;) {
+            int count = current.probes.get();
+
+            if (count == 0) {
+                return false;
+            } else if (current.probes.weakCompareAndSetVolatile(count, count - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void record(boolean failure) {
+        int slot = (int)(cursor.getAndIncrement() % windowSize);
+        long bit = 1L << (slot & 63);
+
+        if (failure) {
+            WINDOW.getAndBitwiseOr(window, slot >>> 6, bit);
+        } else {
+            WINDOW.getAndBitwiseAnd(window, slot >>> 6, ~bit);
+        }
+    }
+
+    private boolean isTripped() {
+        long volume = Math.min(cursor.get(), windowSize);
+
+        if (volume < minimumVolume) {
+            return false;
+        }
+
+        int failures = 0;
+        for (int i = 0; i < window.length; i++) {
+            failures += Long.bitCount((long)WINDOW.getVolatile(window, i));
+        }
+
+        return failures >= failureRatio * volume;
+    }
+
+    private void transition(Status from, State to) {
+        long openedAt = (to == State.OPEN) ? nanoClock.getAsLong() : from.openedAt;
+
+        if (status.compareAndSet(from, new Status(to, from.generation + 1, openedAt)) && to == State.OPEN) {
+            // Start afresh once closed again.
+            for (int i = 0; i < window.length; i++) {
+                WINDOW.setVolatile(window, i, 0L);
+            }
+            cursor.set(0L);
+        }
+    }
+
+    public static class Builder {
+        /**
+         * The number of recent outcomes considered while closed. Defaults to
+         * 100.
+         */
+        private int windowSize = 100;
+
+        /**
+         * The number of outcomes that must be recorded before the breaker can
+         * open. Defaults to 20.
+         */
+        private int minimumVolume = 20;
+
+        /**
+         * The ratio of failures among recent outcomes at which the breaker
+         * opens. Defaults to 0.5.
+         */
+        private double failureRatio = 0.5;
+
+        /**
+         * How long the breaker stays open before admitting probes. Defaults to
+         * 10 seconds.
+         */
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * The rate of positive decisions while half-open. Defaults to 0.1.
+         */
+        private double probeRate = 0.1;
+
+        /**
+         * The number of successful probes needed to close the breaker.
+         * Defaults to 5.
+         */
+        private int probeSuccesses = 5;
+
+        /**
+         * The number of probes that may be in flight at once while half-open.
+         * Defaults to 5.
+         */
+        private int maximumProbes = 5;
+
+        /**
+         * The source of time, in nanoseconds. Defaults to System.nanoTime.
+         */
+        private LongSupplier nanoClock = System::nanoTime;
+
+        public Builder withWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        public Builder withMinimumVolume(int minimumVolume) {
+            this.minimumVolume = minimumVolume;
+            return this;
+        }
+
+        public Builder withFailureRatio(double failureRatio) {
+            this.failureRatio = failureRatio;
+            return this;
+        }
+
+        public Builder withOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public Builder withProbeRate(double probeRate) {
+            this.probeRate = probeRate;
+            return this;
+        }
+
+        public Builder withProbeSuccesses(int probeSuccesses) {
+            this.probeSuccesses = probeSuccesses;
+            return this;
+        }
+
+        public Builder withMaximumProbes(int maximumProbes) {
+            this.maximumProbes = maximumProbes;
+            return this;
+        }
+
+        public Builder withNanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public CircuitBreakerDecider build() {
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("Window size must be a positive number");
+            } else if (minimumVolume < 1 || minimumVolume > windowSize) {
+                throw new IllegalArgumentException("Minimum volume must be between 1 and the window size");
+            } else if (!(failureRatio > 0.0 && failureRatio <= 1.0)) {
+                throw new IllegalArgumentException("Failure ratio must be greater than 0.0 and at most 1.0");
+            } else if (openDuration == null || openDuration.isNegative()) {
+                throw new IllegalArgumentException("Open duration must not be negative");
+            } else if (!(probeRate > 0.0)) {
+                throw new IllegalArgumentException("Probe rate must be a positive number");
+            } else if (probeSuccesses < 1) {
+                throw new IllegalArgumentException("Probe successes must be a positive number");
+            } else if (maximumProbes < 1) {
+                throw new IllegalArgumentException("Maximum probes must be a positive number");
+            }
+
+            return new CircuitBreakerDecider(this);
+        }
+    }
+}
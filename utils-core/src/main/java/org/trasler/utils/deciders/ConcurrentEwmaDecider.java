@@ -0,0 +1,145 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counterpart to {@link EwmaDecider}. The rate is held as the bits
+ * of a double in an AtomicLong and updated by compare-and-set, so no update is
+ * lost and no caller ever blocks.
+ * <p>
+ * The half-life has the meaning its Builder documents: an observation loses
+ * half its impact after that many further observations. EwmaDecider instead
+ * gives each new observation a weight of 2^(-1/halflife), which is kept for
+ * its existing users, so for the same half-life this class moves much more
+ * slowly. To migrate from EwmaDecider with similar behavior, choose a
+ * half-life of about -1/log2(1 - 2^(-1/h)), where h is the old half-life,
+ * e.g., 0.26 for an old half-life of 10.
+ *
+ * @author Simon Trasler
+ */
+public class ConcurrentEwmaDecider implements RateDecider, Persistable {
+    private final double decay;
+    private final double minimumRate;
+    private final double initialRate;
+
+    private final AtomicLong rate;
+
+    private ConcurrentEwmaDecider(Builder builder) {
+        this.decay = Ewma.decay(builder.halflife);
+        this.rate = new AtomicLong(Double.doubleToRawLongBits(builder.initialRate));
+        this.minimumRate = builder.minimumRate;
+        this.initialRate = builder.initialRate;
+    }
+
+    @Override
+    public double getDecisionRate() {
+        return Math.max(getRate(), minimumRate);
+    }
+
+    @Override
+    public void onSuccess() {
+        updateRate(1.0);
+    }
+
+    @Override
+    public void onFailure() {
+        updateRate(0.0);
+    }
+
+    /**
+     * Get the current moving average of the success rate, before the minimum
+     * rate is applied.
+     *
+     * @return The rate
+     */
+    public double getRate() {
+        return Double.longBitsToDouble(rate.get());
+    }
+
+    private void updateRate(double input) {
+        long current;
+        long next;
+
+        do {
+            current = rate.get();
+            next = Double.doubleToRawLongBits(Ewma.update(Double.longBitsToDouble(current), decay, input));
+        } while (!rate.weakCompareAndSetVolatile(current, next));
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(getRate());
+    }
+
+    @Override
+    public void readState(DataInput in, double weight) throws IOException {
+        rate.set(Double.doubleToRawLongBits(Ewma.restore(in.readDouble(), initialRate, weight)));
+    }
+
+    public static class Builder {
+        /**
+         * The half-life of any observation, measured in observations. It must
+         * be a positive number. See {@link EwmaDecider.Builder}.
+         */
+        private double halflife;
+
+        /**
+         * The sample rate to start with. Defaults to 0.0.
+         */
+        private double initialRate;
+
+        /**
+         * The minimum rate for a positive decision. Defaults to 0.0.
+         */
+        private double minimumRate;
+
+        public Builder withHalflife(double halflife) {
+            this.halflife = halflife;
+            return this;
+        }
+
+        public Builder withInitialRate(double initialRate) {
+            this.initialRate = initialRate;
+            return this;
+        }
+
+        public Builder withMinimumRate(double minimumRate) {
+            this.minimumRate = minimumRate;
+            return this;
+        }
+
+        public ConcurrentEwmaDecider build() {
+            if (halflife > 0.0) {
+                return new ConcurrentEwmaDecider(this);
+            } else {
+                throw new IllegalArgumentException("Halflife must be a positive number");
+            }
+        }
+    }
+}
@@ -36,6 +36,53 @@ public interface Decider {
      */
     public boolean decide();
 
+    /**
+     * Make a number of independent decisions at once, based on the current
+     * state, and count the positive ones. By default, this makes each decision
+     * in turn; Deciders with a fixed rate can do much better.
+     *
+     * @param trials The number of decisions
+     * @return The number of positive decisions
+     */
+    public default int decideCount(int trials) {
+        if (trials < 0) {
+            throw new IllegalArgumentException("Trials must not be negative");
+        }
+
+        int count = 0;
+
+        for (int i = 0; i < trials; i++) {
+            if (decide()) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Make a number of independent decisions at once, based on the current
+     * state, as a mask in which bit i is set if decision i is positive.
+     *
+     * @param trials The number of decisions, from 0 to 64
+     * @return The mask of positive decisions
+     */
+    public default long decideMask(int trials) {
+        if (trials < 0 || trials > Long.SIZE) {
+            throw new IllegalArgumentException("Trials must be between 0 and " + Long.SIZE);
+        }
+
+        long mask = 0L;
+
+        for (int i = 0; i < trials; i++) {
+            if (decide()) {
+                mask |= 1L << i;
+            }
+        }
+
+        return mask;
+    }
+
     /**
      * Signal a success. The internal state of the Decider may be updated,
      * according to its model.
@@ -47,4 +94,24 @@ public interface Decider {
      * according to its model.
      */
     public void onFailure();
+
+    /**
+     * Signal a success, with the latency observed for it. By default, the
+     * latency is ignored.
+     *
+     * @param latencyNanos The latency, in nanoseconds
+     */
+    public default void onSuccess(long latencyNanos) {
+        onSuccess();
+    }
+
+    /**
+     * Signal a failure, with the latency observed for it. By default, the
+     * latency is ignored.
+     *
+     * @param latencyNanos The latency, in nanoseconds
+     */
+    public default void onFailure(long latencyNanos) {
+        onFailure();
+    }
 }
@@ -0,0 +1,286 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saves the state of a set of named Deciders to a compact binary file, and
+ * restores it on startup, so that the Deciders resume from their last known
+ * state rather than their initial one. The older the file, the less weight the
+ * restored state carries, halving with each staleness half-life.
+ * <p>
+ * The file is replaced atomically on each save, so a crash never leaves it
+ * half-written. The whole file is validated before any Decider is restored, so
+ * a corrupt file restores nothing. Entries for names that are no longer
+ * registered are skipped.
+ *
+ * @author Simon Trasler
+ */
+public class DeciderSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(DeciderSnapshot.class);
+
+    private final Path path;
+    private final long stalenessHalflifeMillis;
+    private final Clock clock;
+
+    // Guarded by this.
+    private final Map<String, Persistable> entries = new LinkedHashMap<>();
+
+    private static final int MAGIC = 0x44534E50;
+    private static final int VERSION = 1;
+
+    private DeciderSnapshot(Builder builder) {
+        this.path = builder.path;
+        this.stalenessHalflifeMillis = builder.stalenessHalflife.toMillis();
+        this.clock = builder.clock;
+    }
+
+    /**
+     * Register a Decider to be saved and restored under this name.
+     *
+     * @param name The name, unique within this snapshot
+     * @param decider The Decider
+     * @return This object
+     */
+    public synchronized DeciderSnapshot register(String name, Persistable decider) {
+        entries.put(name, decider);
+        return this;
+    }
+
+    /**
+     * Save the state of all registered Deciders.
+     *
+     * @throws IOException If the file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(clock.millis());
+        out.writeInt(entries.size());
+
+        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+
+        for (Map.Entry<String, Persistable> entry : entries.entrySet()) {
+            entryBytes.reset();
+            entry.getValue().writeState(new DataOutputStream(entryBytes));
+
+            out.writeUTF(entry.getKey());
+            out.writeInt(entryBytes.size());
+            entryBytes.writeTo(out);
+        }
+
+        out.flush();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            // Ensure the content is durable before it replaces the old file.
+            channel.force(true);
+        }
+
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Ensure the rename itself is durable, where the platform allows a
+        // directory to be synced.
+        Path directory = path.toAbsolutePath().getParent();
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+        catch (IOException e) {
+            logger.debug("Cannot sync directory:{} message:{}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Restore the state of all registered Deciders that appear in the file.
+     * A missing file is not an error, as there is nothing to restore on the
+     * first run.
+     *
+     * @return The number of Deciders restored
+     * @throws IOException If the file exists but cannot be read, or is
+     * corrupt
+     */
+    public synchronized int load() throws IOException {
+        byte[] data;
+
+        try {
+            data = Files.readAllBytes(path);
+        }
+        catch (NoSuchFileException e) {
+            logger.info("No snapshot to restore from path:{}", path);
+            return 0;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Unrecognized snapshot format at path:" + path);
+        }
+
+        long age = Math.max(0L, clock.millis() - in.readLong());
+        double weight = Math.pow(2.0, -(double)age / stalenessHalflifeMillis);
+
+        int count = in.readInt();
+
+        // Each entry takes at least a name length and a state length.
+        if (count < 0 || count > in.available() / (Short.BYTES + Integer.BYTES)) {
+            throw new IOException("Corrupt snapshot count:" + count + " at path:" + path);
+        }
+
+        Map<String, byte[]> states = new LinkedHashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            int length = in.readInt();
+
+            if (length < 0 || length > in.available()) {
+                throw new IOException("Corrupt snapshot length:" + length + " for name:" + name + " at path:" + path);
+            }
+
+            byte[] state = new byte[length];
+            in.readFully(state);
+            states.put(name, state);
+        }
+
+        if (in.available() != 0) {
+            throw new IOException("Corrupt snapshot with trailing bytes:" + in.available() + " at path:" + path);
+        }
+
+        int restored = 0;
+
+        for (Map.Entry<String, byte[]> entry : states.entrySet()) {
+            Persistable decider = entries.get(entry.getKey());
+
+            if (decider != null) {
+                try (InputStream stream = new ByteArrayInputStream(entry.getValue())) {
+                    decider.readState(new DataInputStream(stream), weight);
+                    restored++;
+                }
+                catch (EOFException e) {
+                    logger.warn("Ignoring truncated state for name:{}", entry.getKey());
+                }
+            }
+        }
+
+        logger.info("Restored count:{} from path:{} age:{}ms", restored, path, age);
+
+        return restored;
+    }
+
+    /**
+     * Save periodically. Failures are logged, and do not stop later saves.
+     *
+     * @param executor The executor on which to save
+     * @param period The time between saves
+     * @return The scheduled task, which may be cancelled
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService executor, Duration period) {
+        return executor.scheduleAtFixedRate(() -> {
+            try {
+                save();
+            }
+            catch (IOException e) {
+                logger.warn("Failed to save snapshot to path:{} message:{}", path, e.getMessage());
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public static class Builder {
+        /**
+         * The file in which to keep the snapshot. It must be provided.
+         */
+        private Path path;
+
+        /**
+         * How long it takes for a snapshot to lose half its weight. Defaults
+         * to 5 minutes.
+         */
+        private Duration stalenessHalflife = Duration.ofMinutes(5);
+
+        /**
+         * The source of wall-clock time, which unlike System.nanoTime is
+         * comparable across restarts. Defaults to the system clock.
+         */
+        private Clock clock = Clock.systemUTC();
+
+        public Builder withPath(Path path) {
+            this.path = path;
+            return this;
+        }
+
+        public Builder withStalenessHalflife(Duration stalenessHalflife) {
+            this.stalenessHalflife = stalenessHalflife;
+            return this;
+        }
+
+        public Builder withClock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public DeciderSnapshot build() {
+            if (path == null) {
+                throw new IllegalArgumentException("Path must be provided");
+            } else if (stalenessHalflife == null || stalenessHalflife.toMillis() <= 0) {
+                throw new IllegalArgumentException("Staleness halflife must be a positive duration");
+            }
+
+            return new DeciderSnapshot(this);
+        }
+    }
+}
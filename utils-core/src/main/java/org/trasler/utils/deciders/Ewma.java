@@ -0,0 +1,93 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+/**
+ * Arithmetic shared by the exponentially-weighted moving average Deciders,
+ * including those in other modules.
+ *
+ * @author Simon Trasler
+ */
+public final class Ewma {
+    private Ewma() {
+    }
+
+    /**
+     * Compute the weight retained by the current average on each observation,
+     * such that an observation loses half its impact after the given number
+     * of further observations.
+     *
+     * @param halflife The half-life, measured in observations
+     * @return The decay factor, between 0.0 and 1.0
+     */
+    public static double decay(double halflife) {
+        return Math.pow(2.0, -1.0 / halflife);
+    }
+
+    /**
+     * Fold a single observation into the average.
+     *
+     * @param rate The current average
+     * @param decay The decay factor
+     * @param input The observation, 1.0 for success or 0.0 for failure
+     * @return The new average
+     */
+    public static double update(double rate, double decay, double input) {
+        return decay * rate + (1.0 - decay) * input;
+    }
+
+    /**
+     * Fold a batch of observations into the average. The order of the
+     * observations within the batch is unknown, so they are treated as though
+     * they were evenly interleaved.
+     *
+     * @param rate The current average
+     * @param decay The decay factor
+     * @param successes The number of successes in the batch
+     * @param failures The number of failures in the batch
+     * @return The new average
+     */
+    public static double fold(double rate, double decay, long successes, long failures) {
+        long count = successes + failures;
+
+        if (count == 0) {
+            return rate;
+        }
+
+        double weight = Math.pow(decay, count);
+        return weight * rate + (1.0 - weight) * ((double)successes / count);
+    }
+
+    /**
+     * Blend a restored average with the initial one.
+     *
+     * @param restored The restored average
+     * @param initial The initial average
+     * @param weight The confidence in the restored average, from 0.0 to 1.0
+     * @return The blended average
+     */
+    public static double restore(double restored, double initial, double weight) {
+        return weight * restored + (1.0 - weight) * initial;
+    }
+}
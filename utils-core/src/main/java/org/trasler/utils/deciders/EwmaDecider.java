@@ -23,15 +23,22 @@
  */
 package org.trasler.utils.deciders;
 
-import org.trasler.utils.lang.Randomizer;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
+ * Decider whose rate of positive decisions tracks the exponentially-weighted
+ * moving average of its success rate. This class is not thread-safe; see
+ * {@link ConcurrentEwmaDecider} for use across threads, noting the difference
+ * in how the two weight each observation.
  *
  * @author Simon Trasler
  */
-public class EwmaDecider implements Decider {
+public class EwmaDecider implements RateDecider, Persistable {
     private final double alpha;
     private final double minimumRate;
+    private final double initialRate;
 
     private double rate;
 
@@ -39,11 +46,12 @@ public class EwmaDecider implements Decider {
         this.alpha = Math.pow(2.0, -1.0 / builder.halflife);
         this.rate = builder.initialRate;
         this.minimumRate = builder.minimumRate;
+        this.initialRate = builder.initialRate;
     }
 
     @Override
-    public boolean decide() {
-        return Randomizer.decide(Math.max(rate, minimumRate));
+    public double getDecisionRate() {
+        return Math.max(rate, minimumRate);
     }
 
     @Override
@@ -56,10 +64,30 @@ public class EwmaDecider implements Decider {
         updateRate(0.0);
     }
 
+    /**
+     * Get the current moving average of the success rate, before the minimum
+     * rate is applied.
+     *
+     * @return The rate
+     */
+    public double getRate() {
+        return rate;
+    }
+
     private void updateRate(double input) {
         rate = (1.0 - alpha) * rate + alpha * input;
     }
 
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(rate);
+    }
+
+    @Override
+    public void readState(DataInput in, double weight) throws IOException {
+        rate = Ewma.restore(in.readDouble(), initialRate, weight);
+    }
+
     public static class Builder {
         /**
          * The half-life of any observation, measured in observations. In other
@@ -68,7 +96,7 @@ public class EwmaDecider implements Decider {
          * new observations will decay slowly: the Decider will have a long
          * memory. It must be a positive number.
          */
-        private double halflife;
+        double halflife;
 
         /**
          * The sample rate to start with. For example, if using this class in a
@@ -76,14 +104,14 @@ public class EwmaDecider implements Decider {
          * to assume success and iterate from there. In this case, the initial
          * rate should be 1.0. Defaults to 0.0.
          */
-        private double initialRate;
+        double initialRate;
 
         /**
          * The minimum rate for a positive decision. Without this, a system with
          * a high rate of failure can get stuck in a doom loop, where the chance
          * of a positive decision becomes tiny. Defaults to 0.0.
          */
-        private double minimumRate;
+        double minimumRate;
 
         public Builder withHalflife(double halflife) {
             this.halflife = halflife;
@@ -0,0 +1,103 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import org.trasler.utils.lang.Randomizer;
+
+/**
+ * Decider for low sampling rates. Rather than drawing a random number for
+ * every decision, it draws the number of negative decisions before the next
+ * positive one from a geometric distribution, and counts down in between. The
+ * decisions are statistically equivalent to those of {@link RandomDecider},
+ * but a random number is drawn only once per positive decision.
+ * <p>
+ * The countdown is kept per thread, so no synchronization is needed.
+ *
+ * @author Simon Trasler
+ */
+public class GeometricDecider implements Decider {
+    private final double rate;
+
+    // Number of negative decisions before the next positive one, per thread.
+    private final ThreadLocal<long[]> remaining;
+
+    private GeometricDecider(Builder builder) {
+        this.rate = builder.rate;
+        this.remaining = ThreadLocal.withInitial(() -> new long[] { Randomizer.skip(rate) });
+    }
+
+    @Override
+    public boolean decide() {
+        long[] countdown = remaining.get();
+
+        if (countdown[0] > 0) {
+            countdown[0]--;
+            return false;
+        }
+
+        countdown[0] = Randomizer.skip(rate);
+        return true;
+    }
+
+    @Override
+    public int decideCount(int trials) {
+        if (trials < 0) {
+            throw new IllegalArgumentException("Trials must not be negative");
+        }
+
+        long[] countdown = remaining.get();
+        long left = trials;
+        int count = 0;
+
+        while (countdown[0] < left) {
+            left -= countdown[0] + 1;
+            countdown[0] = Randomizer.skip(rate);
+            count++;
+        }
+
+        countdown[0] -= left;
+        return count;
+    }
+
+    @Override
+    public void onSuccess() {
+    }
+
+    @Override
+    public void onFailure() {
+    }
+
+    public static class Builder {
+        private double rate;
+
+        public Builder withRate(double rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        public GeometricDecider build() {
+            return new GeometricDecider(this);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.trasler.utils.lang.Randomizer;
+
+/**
+ * Decider for consistent sampling. A decision for a key, such as a user or
+ * request id, is made by hashing the key onto [0, 1) and comparing it with the
+ * rate, so the same key always gets the same decision, in any process. A salt
+ * gives each experiment its own independent sample. Raising the rate only adds
+ * keys to the sample; it never removes any.
+ * <p>
+ * Keys are hashed with MurmurHash3 (x64, 128-bit), keeping the low 64 bits:
+ * a string over its UTF-8 bytes, as String.getBytes would encode it, and a
+ * long over its eight little-endian bytes. A salt sets the seed to the low 32
+ * bits of its own hash. Decisions can thus be reproduced by any other
+ * implementation of the same hash. Strings are encoded as they are hashed,
+ * with no allocation. This class can be deserialized from JSON, e.g.,
+ * {"rate":0.1,"salt":"experiment-1"}, so it can be used as the value type of a
+ * TrieConfig to target sampling rates.
+ *
+ * @author Simon Trasler
+ */
+@JsonDeserialize(builder = HashDecider.Builder.class)
+public class HashDecider implements Decider {
+    private final double rate;
+    private final int seed;
+
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    private HashDecider(Builder builder) {
+        this.rate = builder.rate;
+        this.seed = (builder.salt != null) ? (int)hash(builder.salt, 0) : 0;
+    }
+
+    /**
+     * Make a random decision at the configured rate, for use where no key is
+     * available.
+     *
+     * @return True for a positive outcome, false otherwise
+     */
+    @Override
+    public boolean decide() {
+        return Randomizer.decide(rate);
+    }
+
+    /**
+     * Make a consistent decision for this key.
+     *
+     * @param key The key
+     * @return True for a positive outcome, false otherwise
+     */
+    public boolean decide(CharSequence key) {
+        return toUnitInterval(hash(key, seed)) < rate;
+    }
+
+    /**
+     * Make a consistent decision for this key.
+     *
+     * @param key The key
+     * @return True for a positive outcome, false otherwise
+     */
+    public boolean decide(long key) {
+        return toUnitInterval(hash(key, seed)) < rate;
+    }
+
+    @Override
+    public void onSuccess() {
+    }
+
+    @Override
+    public void onFailure() {
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    private static double toUnitInterval(long hash) {
+        // Use the top 53 bits, as many as a double can represent exactly.
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * MurmurHash3_x64_128 of the UTF-8 encoding of the key, encoding and
+     * hashing one character at a time.
+     */
+    static long hash(CharSequence key, int seed) {
+        int length = key.length();
+        long h1 = seed & 0xFFFFFFFFL;
+        long h2 = h1;
+        long k1 = 0L;
+        long k2 = 0L;
+        int position = 0;
+        long total = 0L;
+
+        for (int i = 0; i < length; i++) {
+            int c = key.charAt(i);
+            int encoded;
+            int count;
+
+            // Gather the bytes of the character, first byte lowest.
+            if (c < 0x80) {
+                encoded = c;
+                count = 1;
+            } else if (c < 0x800) {
+                encoded = (0xC0 | c >>> 6) | (0x80 | c & 0x3F) << 8;
+                count = 2;
+            } else if (!Character.isSurrogate((char)c)) {
+                encoded = (0xE0 | c >>> 12) | (0x80 | c >>> 6 & 0x3F) << 8 | (0x80 | c & 0x3F) << 16;
+                count = 3;
+            } else if (Character.isHighSurrogate((char)c) && i + 1 < length && Character.isLowSurrogate(key.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint((char)c, key.charAt(++i));
+                encoded = (0xF0 | codePoint >>> 18)
+                        | (0x80 | codePoint >>> 12 & 0x3F) << 8
+                        | (0x80 | codePoint >>> 6 & 0x3F) << 16
+                        | (0x80 | codePoint & 0x3F) << 24;
+                count = 4;
+            } else {
+                // An unpaired surrogate is replaced, as String.getBytes does.
+                encoded = '?';
+                count = 1;
+            }
+
+            for ( ; count > 0; count--, encoded >>>= 8) {
+                long b = encoded & 0xFF;
+
+                if (position < 8) {
+                    k1 |= b << (position << 3);
+                } else {
+                    k2 |= b << ((position - 8) << 3);
+                }
+
+                total++;
+
+                if (++position == 16) {
+                    h1 ^= mixK1(k1);
+                    h1 = Long.rotateLeft(h1, 27) + h2;
+                    h1 = h1 * 5 + 0x52DCE729;
+
+                    h2 ^= mixK2(k2);
+                    h2 = Long.rotateLeft(h2, 31) + h1;
+                    h2 = h2 * 5 + 0x38495AB5;
+
+                    k1 = 0L;
+                    k2 = 0L;
+                    position = 0;
+                }
+            }
+        }
+
+        // The tail, if any; mixing zero leaves the state unchanged.
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+
+        return finish(h1, h2, total);
+    }
+
+    /**
+     * MurmurHash3_x64_128 of the eight little-endian bytes of the key.
+     */
+    static long hash(long key, int seed) {
+        long h1 = seed & 0xFFFFFFFFL;
+        long h2 = h1;
+
+        h1 ^= mixK1(key);
+
+        return finish(h1, h2, Long.BYTES);
+    }
+
+    private static long mixK1(long k) {
+        k *= C1;
+        k = Long.rotateLeft(k, 31);
+        return k * C2;
+    }
+
+    private static long mixK2(long k) {
+        k *= C2;
+        k = Long.rotateLeft(k, 33);
+        return k * C1;
+    }
+
+    private static long finish(long h1, long h2, long length) {
+        h1 ^= length;
+        h2 ^= length;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+
+        // The low 64 bits of the 128-bit hash.
+        return h1 + h2;
+    }
+
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public static class Builder {
+        /**
+         * The fraction of keys with a positive decision. Defaults to 0.0.
+         */
+        private double rate;
+
+        /**
+         * Distinguishes this sample from others over the same keys. Defaults
+         * to none.
+         */
+        private String salt;
+
+        public Builder withRate(double rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        public Builder withSalt(String salt) {
+            this.salt = salt;
+            return this;
+        }
+
+        public HashDecider build() {
+            if (!(rate >= 0.0 && rate <= 1.0)) {
+                throw new IllegalArgumentException("Rate must be between 0.0 and 1.0");
+            }
+
+            return new HashDecider(this);
+        }
+    }
+}
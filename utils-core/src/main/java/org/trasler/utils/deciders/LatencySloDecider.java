@@ -0,0 +1,211 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.trasler.utils.lang.DecayingHistogram;
+import org.trasler.utils.lang.Randomizer;
+
+/**
+ * Decider that protects a latency objective. It keeps a decaying estimate of
+ * the latency distribution, and lowers its rate of positive decisions as the
+ * estimated tail latency rises from the knee towards the objective. A failure
+ * counts as a response slower than any objective.
+ * <p>
+ * As the estimate only changes with new observations, the minimum rate works
+ * as for {@link EwmaDecider}: it keeps some traffic flowing, so the Decider can
+ * see the downstream recover.
+ *
+ * @author Simon Trasler
+ */
+public class LatencySloDecider implements Decider {
+    private final long sloNanos;
+    private final long kneeNanos;
+    private final double quantile;
+    private final double minimumRate;
+    private final int refreshInterval;
+
+    private final DecayingHistogram histogram;
+    private final AtomicInteger observations = new AtomicInteger();
+
+    private volatile double rate = 1.0;
+
+    private LatencySloDecider(Builder builder) {
+        this.sloNanos = builder.slo.toNanos();
+        this.kneeNanos = (long)(sloNanos * builder.knee);
+        this.quantile = builder.quantile;
+        this.minimumRate = builder.minimumRate;
+        this.refreshInterval = builder.refreshInterval;
+        this.histogram = new DecayingHistogram(builder.halflife);
+    }
+
+    @Override
+    public boolean decide() {
+        return Randomizer.decide(Math.max(rate, minimumRate));
+    }
+
+    /**
+     * Signal a success without a latency. This carries no information about
+     * latency, so it is ignored.
+     */
+    @Override
+    public void onSuccess() {
+    }
+
+    @Override
+    public void onFailure() {
+        record(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onSuccess(long latencyNanos) {
+        record(latencyNanos);
+    }
+
+    @Override
+    public void onFailure(long latencyNanos) {
+        record(Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the current rate of positive decisions, before the minimum rate is
+     * applied.
+     *
+     * @return The rate
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Estimate the latency at the given quantile, e.g., 0.5 for the median.
+     *
+     * @param quantile The quantile, from 0.0 to 1.0
+     * @return The latency in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getLatency(double quantile) {
+        return histogram.quantile(quantile);
+    }
+
+    private void record(long latencyNanos) {
+        histogram.record(latencyNanos);
+
+        // Estimating the quantile scans the histogram, so amortize the cost.
+        if (observations.incrementAndGet() % refreshInterval == 0) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        long tail = histogram.quantile(quantile);
+
+        if (tail <= kneeNanos) {
+            rate = 1.0;
+        } else if (tail >= sloNanos) {
+            rate = 0.0;
+        } else {
+            rate = (double)(sloNanos - tail) / (sloNanos - kneeNanos);
+        }
+    }
+
+    public static class Builder {
+        /**
+         * The latency objective. It must be positive.
+         */
+        private Duration slo;
+
+        /**
+         * The quantile of latency held to the objective. Defaults to 0.99.
+         */
+        private double quantile = 0.99;
+
+        /**
+         * The fraction of the objective at which the Decider begins to lower
+         * its rate. Defaults to 0.5.
+         */
+        private double knee = 0.5;
+
+        /**
+         * The half-life of any observation, measured in observations. Defaults
+         * to 1000.
+         */
+        private double halflife = 1000.0;
+
+        /**
+         * The minimum rate for a positive decision. Defaults to 0.0.
+         */
+        private double minimumRate;
+
+        /**
+         * The number of observations between refreshes of the rate. Defaults
+         * to 16.
+         */
+        private int refreshInterval = 16;
+
+        public Builder withSlo(Duration slo) {
+            this.slo = slo;
+            return this;
+        }
+
+        public Builder withQuantile(double quantile) {
+            this.quantile = quantile;
+            return this;
+        }
+
+        public Builder withKnee(double knee) {
+            this.knee = knee;
+            return this;
+        }
+
+        public Builder withHalflife(double halflife) {
+            this.halflife = halflife;
+            return this;
+        }
+
+        public Builder withMinimumRate(double minimumRate) {
+            this.minimumRate = minimumRate;
+            return this;
+        }
+
+        public Builder withRefreshInterval(int refreshInterval) {
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+
+        public LatencySloDecider build() {
+            if (slo == null || slo.toNanos() <= 0) {
+                throw new IllegalArgumentException("SLO must be a positive duration");
+            } else if (!(quantile > 0.0 && quantile <= 1.0)) {
+                throw new IllegalArgumentException("Quantile must be greater than 0.0 and at most 1.0");
+            } else if (!(knee >= 0.0 && knee < 1.0)) {
+                throw new IllegalArgumentException("Knee must be at least 0.0 and less than 1.0");
+            } else if (refreshInterval < 1) {
+                throw new IllegalArgumentException("Refresh interval must be a positive number");
+            }
+
+            return new LatencySloDecider(this);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Interface for a Decider whose state can be saved and restored, so that it
+ * can resume where it left off after a restart. See {@link DeciderSnapshot}.
+ *
+ * @author Simon Trasler
+ */
+public interface Persistable {
+    /**
+     * Write the current state.
+     *
+     * @param out The destination
+     * @throws IOException If the state cannot be written
+     */
+    public void writeState(DataOutput out) throws IOException;
+
+    /**
+     * Restore the state written by {@link #writeState(DataOutput)}. The
+     * restored state should be blended with the initial state according to
+     * the weight, which reflects how stale the restored state is.
+     *
+     * @param in The source
+     * @param weight The confidence in the restored state, from 1.0 if it is
+     * fresh towards 0.0 as it becomes stale
+     * @throws IOException If the state cannot be read
+     */
+    public void readState(DataInput in, double weight) throws IOException;
+}
@@ -23,13 +23,11 @@
  */
 package org.trasler.utils.deciders;
 
-import org.trasler.utils.lang.Randomizer;
-
 /**
  *
  * @author Simon Trasler
  */
-public class RandomDecider implements Decider {
+public class RandomDecider implements RateDecider {
     private final double rate;
 
     private RandomDecider(Builder builder) {
@@ -37,8 +35,8 @@ public class RandomDecider implements Decider {
     }
 
     @Override
-    public boolean decide() {
-        return Randomizer.decide(rate);
+    public double getDecisionRate() {
+        return rate;
     }
 
     @Override
@@ -0,0 +1,57 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import org.trasler.utils.lang.Randomizer;
+
+/**
+ * Interface for a Decider whose decisions are independent and random, at a
+ * rate that it can state. The decisions themselves, singly or in batches, are
+ * then common to all such Deciders.
+ *
+ * @author Simon Trasler
+ */
+public interface RateDecider extends Decider {
+    /**
+     * Get the chance of a positive decision, based on the current state.
+     *
+     * @return The rate, from 0.0 to 1.0
+     */
+    public double getDecisionRate();
+
+    @Override
+    public default boolean decide() {
+        return Randomizer.decide(getDecisionRate());
+    }
+
+    @Override
+    public default int decideCount(int trials) {
+        return Randomizer.decideCount(trials, getDecisionRate());
+    }
+
+    @Override
+    public default long decideMask(int trials) {
+        return Randomizer.decideMask(trials, getDecisionRate());
+    }
+}
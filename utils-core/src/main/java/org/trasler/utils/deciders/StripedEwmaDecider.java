@@ -0,0 +1,225 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Variant of {@link EwmaDecider} for heavy concurrent use. Observations are
+ * counted in stripes, each on its own cache line and chosen by thread, so that
+ * threads rarely contend. The counts are folded into the shared average when
+ * any stripe reaches its share of the fold threshold, so at most about that
+ * many observations are pending across all stripes, however they are spread.
+ * A decision only reads the cached average.
+ * <p>
+ * Under very light traffic, the pending observations may take a long time to
+ * reach the threshold. Where that matters, also call {@link #fold()} from a
+ * periodic timer.
+ *
+ * @author Simon Trasler
+ */
+public class StripedEwmaDecider implements RateDecider, Persistable {
+    private final double decay;
+    private final double minimumRate;
+    private final double initialRate;
+    private final int stripeThreshold;
+    private final int stripeMask;
+
+    // Each stripe packs the successes into the high 32 bits and the failures
+    // into the low 32 bits, so one atomic add records an observation.
+    private final AtomicLongArray stripes;
+    private final AtomicBoolean folding = new AtomicBoolean();
+
+    private volatile double rate;
+
+    // Spacing between stripes, in longs, to keep each on its own cache line.
+    private static final int PADDING = 16;
+
+    private static final long SUCCESS = 1L << 32;
+    private static final long FAILURE = 1L;
+    private static final long FAILURE_MASK = 0xFFFFFFFFL;
+
+    private static final int MAXIMUM_FOLD_THRESHOLD = 1 << 24;
+
+    private StripedEwmaDecider(Builder builder) {
+        int stripeCount = Integer.highestOneBit(Math.max(builder.stripes, 1) * 2 - 1);
+
+        this.decay = Ewma.decay(builder.halflife);
+        this.rate = builder.initialRate;
+        this.minimumRate = builder.minimumRate;
+        this.initialRate = builder.initialRate;
+        this.stripeThreshold = Math.max(1, (builder.foldThreshold + stripeCount - 1) / stripeCount);
+        this.stripeMask = stripeCount - 1;
+        this.stripes = new AtomicLongArray(stripeCount * PADDING);
+    }
+
+    @Override
+    public double getDecisionRate() {
+        return Math.max(rate, minimumRate);
+    }
+
+    @Override
+    public void onSuccess() {
+        record(SUCCESS);
+    }
+
+    @Override
+    public void onFailure() {
+        record(FAILURE);
+    }
+
+    /**
+     * Get the moving average of the success rate as of the last fold, before
+     * the minimum rate is applied.
+     *
+     * @return The rate
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Fold all pending observations into the average. If another thread is
+     * already folding, this call returns immediately.
+     */
+    public void fold() {
+        if (folding.compareAndSet(false, true)) {
+            try {
+                long successes = 0;
+                long failures = 0;
+
+                for (int i = 0; i <= stripeMask; i++) {
+                    long stripe = stripes.getAndSet(i * PADDING, 0L);
+
+                    successes += stripe >>> 32;
+                    failures += stripe & FAILURE_MASK;
+                }
+
+                rate = Ewma.fold(rate, decay, successes, failures);
+            }
+            finally {
+                folding.set(false);
+            }
+        }
+    }
+
+    private void record(long delta) {
+        long stripe = stripes.getAndAdd(stripeIndex(), delta);
+
+        if ((stripe >>> 32) + (stripe & FAILURE_MASK) + 1 >= stripeThreshold) {
+            fold();
+        }
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return ((int)(id >>> 32) & stripeMask) * PADDING;
+    }
+
+    /**
+     * Write the current state. Observations not yet folded into the average
+     * are not included.
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(rate);
+    }
+
+    @Override
+    public void readState(DataInput in, double weight) throws IOException {
+        rate = Ewma.restore(in.readDouble(), initialRate, weight);
+    }
+
+    public static class Builder {
+        /**
+         * The half-life of any observation, measured in observations. It must
+         * be a positive number. See {@link EwmaDecider.Builder}.
+         */
+        private double halflife;
+
+        /**
+         * The sample rate to start with. Defaults to 0.0.
+         */
+        private double initialRate;
+
+        /**
+         * The minimum rate for a positive decision. Defaults to 0.0.
+         */
+        private double minimumRate;
+
+        /**
+         * The number of stripes, rounded up to a power of two. Defaults to
+         * the number of available processors.
+         */
+        private int stripes = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * The number of observations pending across all stripes before they
+         * are folded into the average. Each stripe folds on reaching its
+         * share of this number, rounded up. Larger values reduce contention on
+         * the average, at the cost of a delay in reacting to new observations.
+         * Defaults to 64.
+         */
+        private int foldThreshold = 64;
+
+        public Builder withHalflife(double halflife) {
+            this.halflife = halflife;
+            return this;
+        }
+
+        public Builder withInitialRate(double initialRate) {
+            this.initialRate = initialRate;
+            return this;
+        }
+
+        public Builder withMinimumRate(double minimumRate) {
+            this.minimumRate = minimumRate;
+            return this;
+        }
+
+        public Builder withStripes(int stripes) {
+            this.stripes = stripes;
+            return this;
+        }
+
+        public Builder withFoldThreshold(int foldThreshold) {
+            this.foldThreshold = foldThreshold;
+            return this;
+        }
+
+        public StripedEwmaDecider build() {
+            if (!(halflife > 0.0)) {
+                throw new IllegalArgumentException("Halflife must be a positive number");
+            } else if (foldThreshold < 1 || foldThreshold > MAXIMUM_FOLD_THRESHOLD) {
+                throw new IllegalArgumentException("Fold threshold must be between 1 and " + MAXIMUM_FOLD_THRESHOLD);
+            }
+
+            return new StripedEwmaDecider(this);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.random.RandomGenerator;
+import org.trasler.utils.lang.Randomizer;
+
+/**
+ * Selector among several equivalent targets ("arms"), favouring whichever is
+ * currently healthiest, by Thompson sampling. Each arm has a Beta posterior
+ * over its success rate, whose counts decay like those of {@link EwmaDecider}
+ * so that the selector tracks changes in health. Each selection draws once from
+ * every arm's posterior and picks the highest draw, so arms are explored in
+ * proportion to the chance that they are the best.
+ * <p>
+ * Every observation decays the counts of every arm, not only the arm it is
+ * for. An arm that has failed and is no longer selected thus drifts back
+ * towards the uniform prior, and is explored again, so it can be found to have
+ * recovered.
+ * <p>
+ * Selection is allocation-free. Feedback is recorded with compare-and-set, so
+ * the selector may be shared across threads. The success and failure counts
+ * of an arm are held together and updated at once, so a selection never sees
+ * one without the other.
+ *
+ * @author Simon Trasler
+ */
+public class ThompsonSelector {
+    private final float decay;
+
+    // Decayed counts per arm, held as the bits of two floats: successes in
+    // the upper half and failures in the lower.
+    private final AtomicLongArray counts;
+
+    private ThompsonSelector(Builder builder) {
+        this.decay = (float)Ewma.decay(builder.halflife);
+        this.counts = new AtomicLongArray(builder.arms);
+    }
+
+    /**
+     * Select an arm.
+     *
+     * @return The index of the arm
+     */
+    public int select() {
+        RandomGenerator generator = Randomizer.current();
+
+        int best = 0;
+        double bestSample = -1.0;
+
+        for (int i = 0; i < counts.length(); i++) {
+            long current = counts.get(i);
+
+            // Uniform prior, so both parameters are at least 1.0.
+            double sample = beta(1.0 + successes(current), 1.0 + failures(current), generator);
+
+            if (sample > bestSample) {
+                best = i;
+                bestSample = sample;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Signal a success for the given arm.
+     *
+     * @param arm The index of the arm
+     */
+    public void onSuccess(int arm) {
+        update(arm, 1.0f, 0.0f);
+    }
+
+    /**
+     * Signal a failure for the given arm.
+     *
+     * @param arm The index of the arm
+     */
+    public void onFailure(int arm) {
+        update(arm, 0.0f, 1.0f);
+    }
+
+    /**
+     * Get the number of arms.
+     *
+     * @return The number of arms
+     */
+    public int getArms() {
+        return counts.length();
+    }
+
+    private static float successes(long counts) {
+        return Float.intBitsToFloat((int)(counts >>> 32));
+    }
+
+    private static float failures(long counts) {
+        return Float.intBitsToFloat((int)counts);
+    }
+
+    private static long pack(float successes, float failures) {
+        return ((long)Float.floatToRawIntBits(successes) << 32) | (Float.floatToRawIntBits(failures) & 0xFFFFFFFFL);
+    }
+
+    private void update(int arm, float success, float failure) {
+        Objects.checkIndex(arm, counts.length());
+
+        for (int i = 0; i < counts.length(); i++) {
+            float addSuccess = (i == arm) ? success : 0.0f;
+            float addFailure = (i == arm) ? failure : 0.0f;
+            long current;
+            long next;
+
+            do {
+                current = counts.get(i);
+                next = pack(decay * successes(current) + addSuccess, decay * failures(current) + addFailure);
+            } while (!counts.weakCompareAndSetVolatile(i, current, next));
+        }
+    }
+
+    /**
+     * Draw from Beta(a, b), as X / (X + Y) for X ~ Gamma(a) and Y ~ Gamma(b).
+     */
+    private static double beta(double a, double b, RandomGenerator generator) {
+        double x = gamma(a, generator);
+        double y = gamma(b, generator);
+        return x / (x + y);
+    }
+
+    /**
+     * Draw from Gamma(shape, 1) for shape of at least 1.0, by the method of
+     * Marsaglia and Tsang.
+     */
+    private static double gamma(double shape, RandomGenerator generator) {
+        double d = shape - 1.0 / 3.0;
+        double c = 1.0 / Math.sqrt(9.0 * d);
+
+        for (;;) {
+            double x = generator.nextGaussian();
+            double v = 1.0 + c * x;
+
+            if (v <= 0.0) {
+                continue;
+            }
+
+            v = v * v * v;
+            double u = generator.nextDouble();
+            double x2 = x * x;
+
+            if (u < 1.0 - 0.0331 * x2 * x2 || Math.log(u) < 0.5 * x2 + d * (1.0 - v + Math.log(v))) {
+                return d * v;
+            }
+        }
+    }
+
+    public static class Builder {
+        /**
+         * The number of arms. It must be a positive number.
+         */
+        private int arms;
+
+        /**
+         * The half-life of any observation of an arm, measured in observations
+         * of all arms. It must be a positive number. Defaults to 100.
+         */
+        private double halflife = 100.0;
+
+        public Builder withArms(int arms) {
+            this.arms = arms;
+            return this;
+        }
+
+        public Builder withHalflife(double halflife) {
+            this.halflife = halflife;
+            return this;
+        }
+
+        public ThompsonSelector build() {
+            if (arms < 1) {
+                throw new IllegalArgumentException("Arms must be a positive number");
+            } else if (!(halflife > 0.0)) {
+                throw new IllegalArgumentException("Halflife must be a positive number");
+            }
+
+            return new ThompsonSelector(this);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Variant of {@link EwmaDecider} whose observations decay with elapsed time
+ * rather than with the number of later observations. Its memory is therefore
+ * the same at peak traffic as overnight.
+ * <p>
+ * The rate is the ratio of the decayed sum of observations to their decayed
+ * count, so a burst of observations at the same instant is weighted fairly.
+ * The initial rate counts as a single observation made at construction time.
+ * Updates are serialized and allocation-free; decisions read a cached rate.
+ *
+ * @author Simon Trasler
+ */
+public class TimedEwmaDecider implements RateDecider, Persistable {
+    private final double lambda;
+    private final double minimumRate;
+    private final double initialRate;
+    private final LongSupplier nanoClock;
+
+    private double sum;
+    private double weight;
+    private long lastUpdate;
+
+    private volatile double rate;
+
+    private TimedEwmaDecider(Builder builder) {
+        this.lambda = Math.log(2.0) / builder.halflife.toNanos();
+        this.minimumRate = builder.minimumRate;
+        this.initialRate = builder.initialRate;
+        this.nanoClock = builder.nanoClock;
+        this.sum = builder.initialRate;
+        this.weight = 1.0;
+        this.lastUpdate = nanoClock.getAsLong();
+        this.rate = builder.initialRate;
+    }
+
+    @Override
+    public double getDecisionRate() {
+        return Math.max(rate, minimumRate);
+    }
+
+    @Override
+    public void onSuccess() {
+        updateRate(1.0);
+    }
+
+    @Override
+    public void onFailure() {
+        updateRate(0.0);
+    }
+
+    /**
+     * Get the current moving average of the success rate, before the minimum
+     * rate is applied. The passage of time alone does not change the rate, as
+     * it decays the sum and the count of observations equally.
+     *
+     * @return The rate
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    private synchronized void updateRate(double input) {
+        long now = nanoClock.getAsLong();
+        long elapsed = now - lastUpdate;
+
+        if (elapsed > 0) {
+            double decay = Math.exp(-lambda * elapsed);
+
+            sum *= decay;
+            weight *= decay;
+            lastUpdate = now;
+        }
+
+        sum += input;
+        weight += 1.0;
+
+        rate = sum / weight;
+    }
+
+    /**
+     * Write the current state: the decayed sum and count of observations, as
+     * of the last observation.
+     */
+    @Override
+    public synchronized void writeState(DataOutput out) throws IOException {
+        out.writeDouble(sum);
+        out.writeDouble(weight);
+    }
+
+    /**
+     * Restore the state. The restored observations are scaled by the weight,
+     * and the remainder is made up from the initial state.
+     */
+    @Override
+    public synchronized void readState(DataInput in, double confidence) throws IOException {
+        // The initial state counts as a single observation, as on construction.
+        sum = in.readDouble() * confidence + initialRate * (1.0 - confidence);
+        weight = in.readDouble() * confidence + (1.0 - confidence);
+        lastUpdate = nanoClock.getAsLong();
+
+        rate = sum / weight;
+    }
+
+    public static class Builder {
+        /**
+         * The half-life of any observation, measured in time. In other words,
+         * this is how long it takes for a given observation to lose half its
+         * impact. It must be positive.
+         */
+        private Duration halflife;
+
+        /**
+         * The sample rate to start with. Defaults to 0.0.
+         */
+        private double initialRate;
+
+        /**
+         * The minimum rate for a positive decision. Defaults to 0.0.
+         */
+        private double minimumRate;
+
+        /**
+         * The source of time, in nanoseconds. Defaults to System.nanoTime.
+         */
+        private LongSupplier nanoClock = System::nanoTime;
+
+        public Builder withHalflife(Duration halflife) {
+            this.halflife = halflife;
+            return this;
+        }
+
+        public Builder withInitialRate(double initialRate) {
+            this.initialRate = initialRate;
+            return this;
+        }
+
+        public Builder withMinimumRate(double minimumRate) {
+            this.minimumRate = minimumRate;
+            return this;
+        }
+
+        public Builder withNanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public TimedEwmaDecider build() {
+            if (halflife != null && halflife.toNanos() > 0) {
+                return new TimedEwmaDecider(this);
+            } else {
+                throw new IllegalArgumentException("Halflife must be a positive duration");
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate-limiting Decider, modelled as a bucket of tokens that refills at a
+ * fixed rate up to a burst capacity. A positive decision takes a token.
+ * <p>
+ * The bucket is held as a single timestamp: the time at which it would next be
+ * full, per the generic cell rate algorithm. A decision therefore refills the
+ * bucket lazily from the clock, and takes a token with a single compare-and-set
+ * when uncontended, with no background thread.
+ *
+ * @author Simon Trasler
+ */
+public class TokenBucketDecider implements Decider {
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final boolean refundOnFailure;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong fullAt;
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private TokenBucketDecider(Builder builder) {
+        this.intervalNanos = Math.max(1L, Math.round(NANOS_PER_SECOND / builder.rate));
+        this.capacityNanos = Math.round(intervalNanos * builder.burst);
+        this.refundOnFailure = builder.refundOnFailure;
+        this.nanoClock = builder.nanoClock;
+        this.fullAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    @Override
+    public boolean decide() {
+        long now = nanoClock.getAsLong();
+
+        for (;;) {
+            long current = fullAt.get();
+            long next = ((current - now > 0) ? current : now) + intervalNanos;
+
+            if (next - now > capacityNanos) {
+                // Not enough tokens.
+                return false;
+            } else if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void onSuccess() {
+    }
+
+    @Override
+    public void onFailure() {
+        if (refundOnFailure) {
+            // Any excess over a full bucket is discarded on the next decision.
+            fullAt.getAndAdd(-intervalNanos);
+        }
+    }
+
+    public static class Builder {
+        /**
+         * The rate at which tokens are added to the bucket, per second. It
+         * must be a positive number.
+         */
+        private double rate;
+
+        /**
+         * The capacity of the bucket, i.e., the largest number of positive
+         * decisions that can be made at once. It must be at least 1.0.
+         * Defaults to 1.0.
+         */
+        private double burst = 1.0;
+
+        /**
+         * Whether a failure returns its token to the bucket, so that only
+         * successful calls count against the rate. Defaults to false.
+         */
+        private boolean refundOnFailure;
+
+        /**
+         * The source of time, in nanoseconds. Defaults to System.nanoTime.
+         */
+        private LongSupplier nanoClock = System::nanoTime;
+
+        public Builder withRate(double rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        public Builder withBurst(double burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        public Builder withRefundOnFailure(boolean refundOnFailure) {
+            this.refundOnFailure = refundOnFailure;
+            return this;
+        }
+
+        public Builder withNanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public TokenBucketDecider build() {
+            if (!(rate > 0.0)) {
+                throw new IllegalArgumentException("Rate must be a positive number");
+            } else if (!(burst >= 1.0)) {
+                throw new IllegalArgumentException("Burst must be at least 1.0");
+            }
+
+            return new TokenBucketDecider(this);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders.simulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.trasler.utils.deciders.Decider;
+import org.trasler.utils.lang.Randomizer;
+
+/**
+ * Offline replay of a {@link Trace} through a Decider, to tune its parameters
+ * against recorded traffic. Each event is offered to the Decider; if it is
+ * accepted, the Decider is told the recorded outcome and latency, as it would
+ * be in production.
+ * <p>
+ * Events are replayed as fast as possible, but each Decider is given a virtual
+ * nano clock that reads the recorded timestamp of the current event, so that
+ * time-based Deciders behave as they would have at the recorded rate. The
+ * outcome of an accepted event is reported at that same timestamp. Random
+ * decisions are drawn from a generator seeded afresh for each replay, so
+ * results are reproducible, and every candidate in a sweep sees the same
+ * sequence of random numbers.
+ * <p>
+ * An outage is a run of consecutive failures in the trace of at least the
+ * outage threshold. Recovery is measured from the first success after an
+ * outage, up to and including the event that completes a run of accepted
+ * events of the recovery threshold.
+ *
+ * @author Simon Trasler
+ */
+public class Simulation {
+    private final Trace trace;
+    private final int outageThreshold;
+    private final int recoveryThreshold;
+    private final long seed;
+
+    private Simulation(Builder builder) {
+        this.trace = builder.trace;
+        this.outageThreshold = builder.outageThreshold;
+        this.recoveryThreshold = builder.recoveryThreshold;
+        this.seed = builder.seed;
+    }
+
+    /**
+     * Replay the trace through a Decider.
+     *
+     * @param factory Creates a fresh Decider from the virtual nano clock, which
+     * the Decider should use in place of the system clock
+     * @return The result
+     */
+    public Result run(Function<LongSupplier, ? extends Decider> factory) {
+        VirtualClock clock = new VirtualClock();
+        Decider decider = factory.apply(clock);
+
+        return Randomizer.withGenerator(new SplittableRandom(seed), () -> replay(decider, clock));
+    }
+
+    private Result replay(Decider decider, VirtualClock clock) {
+        Result result = new Result();
+        long size = trace.size();
+
+        long failureRun = 0;
+        long acceptedRun = 0;
+        long recoveryStart = -1;
+
+        for (long i = 0; i < size; i++) {
+            long outcome = trace.getOutcome(i);
+            boolean failure = Trace.isFailure(outcome);
+
+            clock.nanos = trace.getTimestampNanos(i);
+
+            boolean accepted = decider.decide();
+
+            if (accepted) {
+                result.accepted++;
+
+                if (failure) {
+                    result.wasted++;
+                    decider.onFailure(Trace.getLatencyNanos(outcome));
+                } else {
+                    decider.onSuccess(Trace.getLatencyNanos(outcome));
+                }
+
+                acceptedRun++;
+            } else {
+                if (!failure) {
+                    result.missed++;
+                }
+
+                acceptedRun = 0;
+            }
+
+            if (failure) {
+                if (++failureRun == outageThreshold) {
+                    result.outages++;
+
+                    // An outage during recovery abandons that recovery.
+                    recoveryStart = -1;
+                }
+            } else {
+                if (failureRun >= outageThreshold) {
+                    recoveryStart = i;
+                    acceptedRun = accepted ? 1 : 0;
+                }
+
+                failureRun = 0;
+            }
+
+            if (recoveryStart >= 0 && acceptedRun >= recoveryThreshold) {
+                result.recoveries++;
+                result.recoveryEvents += i - recoveryStart + 1;
+                result.recoveryNanos += clock.nanos - trace.getTimestampNanos(recoveryStart);
+                recoveryStart = -1;
+            }
+        }
+
+        result.events = size;
+
+        return result;
+    }
+
+    /**
+     * Replay the trace through each of a set of Deciders in parallel, e.g.,
+     * over a grid of parameters.
+     *
+     * @param candidates Factories for the Deciders to replay, each labelled,
+     * as for {@link #run(Function)}
+     * @param pool The pool on which to run the replays
+     * @return The results, under the same labels and in the same order
+     */
+    public Map<String, Result> sweep(Map<String, ? extends Function<LongSupplier, ? extends Decider>> candidates, ForkJoinPool pool) {
+        List<String> labels = new ArrayList<>();
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>();
+
+        for (Map.Entry<String, ? extends Function<LongSupplier, ? extends Decider>> candidate : candidates.entrySet()) {
+            Function<LongSupplier, ? extends Decider> factory = candidate.getValue();
+
+            labels.add(candidate.getKey());
+            tasks.add(pool.submit(() -> run(factory)));
+        }
+
+        Map<String, Result> results = new LinkedHashMap<>();
+
+        for (int i = 0; i < tasks.size(); i++) {
+            results.put(labels.get(i), tasks.get(i).join());
+        }
+
+        return results;
+    }
+
+    /**
+     * Clock that reads the timestamp of the event being replayed.
+     */
+    private static class VirtualClock implements LongSupplier {
+        private long nanos;
+
+        @Override
+        public long getAsLong() {
+            return nanos;
+        }
+    }
+
+    /**
+     * Counts from a single replay.
+     */
+    public static class Result {
+        private long events;
+        private long accepted;
+        private long wasted;
+        private long missed;
+        private long outages;
+        private long recoveries;
+        private long recoveryEvents;
+        private long recoveryNanos;
+
+        /**
+         * Get the number of events replayed.
+         *
+         * @return The number of events
+         */
+        public long getEvents() {
+            return events;
+        }
+
+        /**
+         * Get the number of events accepted by the Decider.
+         *
+         * @return The number of accepted events
+         */
+        public long getAccepted() {
+            return accepted;
+        }
+
+        /**
+         * Get the fraction of events accepted by the Decider.
+         *
+         * @return The acceptance rate, from 0.0 to 1.0
+         */
+        public double getAcceptanceRate() {
+            return (events > 0) ? (double)accepted / events : 0.0;
+        }
+
+        /**
+         * Get the number of accepted events that failed, i.e., calls that
+         * would have been better not made.
+         *
+         * @return The number of wasted calls
+         */
+        public long getWasted() {
+            return wasted;
+        }
+
+        /**
+         * Get the number of rejected events that would have succeeded.
+         *
+         * @return The number of missed calls
+         */
+        public long getMissed() {
+            return missed;
+        }
+
+        /**
+         * Get the number of outages in the trace.
+         *
+         * @return The number of outages
+         */
+        public long getOutages() {
+            return outages;
+        }
+
+        /**
+         * Get the number of outages from which the Decider recovered.
+         *
+         * @return The number of recoveries
+         */
+        public long getRecoveries() {
+            return recoveries;
+        }
+
+        /**
+         * Get the mean time to recover from an outage, among those outages
+         * from which the Decider recovered.
+         *
+         * @return The mean number of events, or NaN if there were no
+         * recoveries
+         */
+        public double getMeanRecoveryEvents() {
+            return (recoveries > 0) ? (double)recoveryEvents / recoveries : Double.NaN;
+        }
+
+        /**
+         * Get the mean time to recover from an outage, as for
+         * {@link #getMeanRecoveryEvents()}, by the recorded timestamps.
+         *
+         * @return The mean time in nanoseconds, or NaN if there were no
+         * recoveries
+         */
+        public double getMeanRecoveryNanos() {
+            return (recoveries > 0) ? (double)recoveryNanos / recoveries : Double.NaN;
+        }
+
+        @Override
+        public String toString() {
+            return "events:" + events
+                    + " accepted:" + accepted
+                    + " wasted:" + wasted
+                    + " missed:" + missed
+                    + " outages:" + outages
+                    + " recoveries:" + recoveries
+                    + " meanRecoveryEvents:" + getMeanRecoveryEvents()
+                    + " meanRecoveryNanos:" + getMeanRecoveryNanos();
+        }
+    }
+
+    public static class Builder {
+        /**
+         * The trace to replay. It must be provided.
+         */
+        private Trace trace;
+
+        /**
+         * The number of consecutive failures in the trace that make an
+         * outage. Defaults to 10.
+         */
+        private int outageThreshold = 10;
+
+        /**
+         * The number of consecutive accepted events that mark the end of
+         * recovery from an outage. Defaults to 10.
+         */
+        private int recoveryThreshold = 10;
+
+        /**
+         * The seed for the random decisions made in each replay. Defaults to
+         * 0.
+         */
+        private long seed;
+
+        public Builder withTrace(Trace trace) {
+            this.trace = trace;
+            return this;
+        }
+
+        public Builder withOutageThreshold(int outageThreshold) {
+            this.outageThreshold = outageThreshold;
+            return this;
+        }
+
+        public Builder withRecoveryThreshold(int recoveryThreshold) {
+            this.recoveryThreshold = recoveryThreshold;
+            return this;
+        }
+
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Simulation build() {
+            if (trace == null) {
+                throw new IllegalArgumentException("Trace must be provided");
+            } else if (outageThreshold < 1) {
+                throw new IllegalArgumentException("Outage threshold must be a positive number");
+            } else if (recoveryThreshold < 1) {
+                throw new IllegalArgumentException("Recovery threshold must be a positive number");
+            }
+
+            return new Simulation(this);
+        }
+    }
+}
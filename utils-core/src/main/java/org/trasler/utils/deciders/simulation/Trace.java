@@ -0,0 +1,198 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders.simulation;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Recorded sequence of downstream outcomes, held in a memory-mapped file so
+ * that traces far larger than the heap can be replayed. Each event is a
+ * 16-byte record: the time at which the call was made, in nanoseconds from any
+ * fixed origin, then its outcome, in which the top bit is set for a failure and
+ * the remaining bits hold the latency in nanoseconds. Timestamps never
+ * decrease.
+ * <p>
+ * A single mapping is limited to 2GB, so the file is mapped in chunks. The
+ * trace is read-only and may be shared between threads.
+ *
+ * @author Simon Trasler
+ */
+public class Trace {
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+
+    private static final int RECORD_SIZE = 2 * Long.BYTES;
+    private static final long FAILURE = 1L << 63;
+
+    // Each chunk holds 2^26 records, or 1GB.
+    private static final int CHUNK_SHIFT = 26;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private Trace(MappedByteBuffer[] chunks, long size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Map a trace file.
+     *
+     * @param path The file
+     * @return The trace
+     * @throws IOException If the file cannot be read, or ends in a partial
+     * record, e.g., because it was truncated while being written
+     */
+    public static Trace open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+
+            if (length % RECORD_SIZE != 0) {
+                throw new IOException("Corrupt trace: " + length + " bytes is not a whole number of records");
+            }
+
+            long size = length / RECORD_SIZE;
+            int chunkCount = (int)((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+
+            for (int i = 0; i < chunkCount; i++) {
+                long first = (long)i << CHUNK_SHIFT;
+                long count = Math.min(size - first, 1L << CHUNK_SHIFT);
+
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * RECORD_SIZE, count * RECORD_SIZE);
+            }
+
+            // The mappings remain valid once the channel is closed.
+            return new Trace(chunks, size);
+        }
+    }
+
+    /**
+     * Get the number of events in the trace.
+     *
+     * @return The number of events
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Get the time at which an event occurred.
+     *
+     * @param index The index of the event
+     * @return The timestamp in nanoseconds
+     */
+    public long getTimestampNanos(long index) {
+        return chunks[(int)(index >>> CHUNK_SHIFT)].getLong((int)(index & CHUNK_MASK) * RECORD_SIZE);
+    }
+
+    /**
+     * Get the encoded outcome of an event.
+     *
+     * @param index The index of the event
+     * @return The outcome
+     */
+    public long getOutcome(long index) {
+        return chunks[(int)(index >>> CHUNK_SHIFT)].getLong((int)(index & CHUNK_MASK) * RECORD_SIZE + Long.BYTES);
+    }
+
+    /**
+     * Test whether an outcome is a failure.
+     *
+     * @param outcome The outcome
+     * @return True if the event failed
+     */
+    public static boolean isFailure(long outcome) {
+        return outcome < 0;
+    }
+
+    /**
+     * Get the latency from an outcome.
+     *
+     * @param outcome The outcome
+     * @return The latency in nanoseconds
+     */
+    public static long getLatencyNanos(long outcome) {
+        return outcome & ~FAILURE;
+    }
+
+    /**
+     * Encode an outcome.
+     *
+     * @param failure True if the event failed
+     * @param latencyNanos The latency in nanoseconds, which must not be negative
+     * @return The outcome
+     */
+    public static long encode(boolean failure, long latencyNanos) {
+        return failure ? (latencyNanos | FAILURE) : latencyNanos;
+    }
+
+    /**
+     * Sequential writer for a trace file, e.g., to record outcomes from
+     * production.
+     */
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private long lastTimestampNanos = Long.MIN_VALUE;
+
+        public Writer(Path path) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        }
+
+        /**
+         * Append an event.
+         *
+         * @param timestampNanos The time at which the call was made, in
+         * nanoseconds, which must not be earlier than that of the previous
+         * event
+         * @param failure True if the event failed
+         * @param latencyNanos The latency in nanoseconds
+         * @return This object
+         * @throws IOException If the event cannot be written
+         */
+        public Writer append(long timestampNanos, boolean failure, long latencyNanos) throws IOException {
+            if (timestampNanos < lastTimestampNanos) {
+                throw new IllegalArgumentException("Timestamps must not decrease");
+            } else if (latencyNanos < 0) {
+                throw new IllegalArgumentException("Latency must not be negative");
+            }
+
+            out.writeLong(timestampNanos);
+            out.writeLong(encode(failure, latencyNanos));
+            lastTimestampNanos = timestampNanos;
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
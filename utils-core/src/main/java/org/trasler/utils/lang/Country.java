@@ -23,8 +23,8 @@
  */
 package org.trasler.utils.lang;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
-import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -32,29 +32,60 @@ import java.util.stream.Collectors;
  * Encapsulation of ISO standard country codes. This implementation specifically
  * does not use an enumeration of codes because that is fragile. While the
  * enumeration does not change often, it is not static.
+ * <p>
+ * There is exactly one instance per country, looked up from tables indexed by
+ * the letters of the code, so lookup does not allocate and instances may be
+ * compared by identity.
  *
  * @author Simon Trasler
  */
 public class Country {
     private final String alpha2;
     private final String alpha3;
+    private final int ordinal;
 
-    public static final Country UNKNOWN = new Country("--", "---");
+    private static final int LETTERS = 26;
 
-    public static final Set<Country> EU_COUNTRIES = Country.of(CountryCodes.EU_COUNTRY_CODES);
+    // The number of known countries, each with an ordinal below this count.
+    static final int COUNT = CountryCodes.ALPHA2_CODES.length() / 2;
 
-    public static final Set<Country> EFTA_COUNTRIES = Country.of(CountryCodes.EFTA_COUNTRY_CODES);
+    // Canonical instances, indexed by ordinal.
+    private static final Country[] BY_ORDINAL = new Country[COUNT];
 
-    public static final Set<Country> EEA_COUNTRIES = Country.of(CountryCodes.EEA_COUNTRY_CODES);
+    // Canonical instances, indexed by the letters of their codes.
+    private static final Country[] BY_ALPHA2 = new Country[LETTERS * LETTERS];
+    private static final Country[] BY_ALPHA3 = new Country[LETTERS * LETTERS * LETTERS];
 
-    public static final Set<Country> GDPR_COUNTRIES = Country.of(CountryCodes.GDPR_COUNTRY_CODES);
+    static {
+        for (int i = 0; i < COUNT; i++) {
+            String alpha2 = CountryCodes.ALPHA2_CODES.substring(i * 2, i * 2 + 2);
+            String alpha3 = CountryCodes.ALPHA3_CODES.substring(i * 3, i * 3 + 3);
+            Country country = new Country(alpha2, alpha3, i);
 
-    private Country(String alpha2, String alpha3) {
+            BY_ORDINAL[i] = country;
+            BY_ALPHA2[index(alpha2.charAt(0), alpha2.charAt(1))] = country;
+            BY_ALPHA3[index(alpha3.charAt(0), alpha3.charAt(1), alpha3.charAt(2))] = country;
+        }
+    }
+
+    public static final Country UNKNOWN = new Country("--", "---", -1);
+
+    public static final Set<Country> EU_COUNTRIES = CountrySet.of(CountryCodes.EU_COUNTRY_CODES);
+
+    public static final Set<Country> EFTA_COUNTRIES = CountrySet.of(CountryCodes.EFTA_COUNTRY_CODES);
+
+    public static final Set<Country> EEA_COUNTRIES = CountrySet.of(CountryCodes.EEA_COUNTRY_CODES);
+
+    public static final Set<Country> GDPR_COUNTRIES = CountrySet.of(CountryCodes.GDPR_COUNTRY_CODES);
+
+    private Country(String alpha2, String alpha3, int ordinal) {
         assert(alpha2.length() == 2);
         this.alpha2 = alpha2;
 
         assert(alpha3.length() == 3);
         this.alpha3 = alpha3;
+
+        this.ordinal = ordinal;
     }
 
     /**
@@ -76,30 +107,94 @@ public class Country {
     }
 
     /**
-     * Construct an instance of Country for this ISO-3166 standard code, whether
-     * alpha-2 or alpha-3, uppercase or lowercase. The objects created from the
-     * same codes are equivalent. If the input code is not recognized, a default
-     * object is returned.
+     * Get the position of this country in the table of known countries, from
+     * zero, or -1 for the unknown country. Ordinals are dense, so they suit
+     * bitsets and arrays, but they may change when the table is regenerated.
+     *
+     * @return The ordinal
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Get the Country with this ordinal.
+     *
+     * @param ordinal The ordinal, from zero and less than COUNT
+     * @return The corresponding Country object
+     */
+    static Country ofOrdinal(int ordinal) {
+        return BY_ORDINAL[ordinal];
+    }
+
+    /**
+     * Get the Country for this ISO-3166 standard code, whether alpha-2 or
+     * alpha-3, uppercase or lowercase. The same code always returns the same
+     * object. If the input code is not recognized, a default object is
+     * returned.
      *
      * @param code The code
      * @return The corresponding Country object
      */
     public static Country of(String code) {
-        String otherCode;
+        return of((CharSequence)code);
+    }
 
+    /**
+     * Get the Country for this ISO-3166 standard code, e.g., a slice of a
+     * larger buffer, without first converting it to a String.
+     *
+     * @param code The code
+     * @return The corresponding Country object
+     * @see #of(String)
+     */
+    public static Country of(CharSequence code) {
         if (code != null) {
-            // Ensure all strings are in upper case.
-            code = code.toUpperCase();
-
-            otherCode = CountryCodes.getAlpha3CountryCode(code);
-            if (otherCode != null) {
-                return new Country(code, otherCode);
+            if (code.length() == 2) {
+                return lookup(index(code.charAt(0), code.charAt(1)), BY_ALPHA2);
+            } else if (code.length() == 3) {
+                return lookup(index(code.charAt(0), code.charAt(1), code.charAt(2)), BY_ALPHA3);
             }
+        }
 
-            otherCode = CountryCodes.getAlpha2CountryCode(code);
-            if (otherCode != null) {
-                return new Country(otherCode, code);
-            }
+        return UNKNOWN;
+    }
+
+    /**
+     * Get the Country for this ISO-3166 standard code, held as ASCII bytes
+     * within an array, e.g., a raw request.
+     *
+     * @param bytes The array
+     * @param offset The index of the first byte of the code
+     * @param length The length of the code
+     * @return The corresponding Country object
+     * @see #of(String)
+     */
+    public static Country of(byte[] bytes, int offset, int length) {
+        if (length == 2) {
+            return lookup(index(ascii(bytes[offset]), ascii(bytes[offset + 1])), BY_ALPHA2);
+        } else if (length == 3) {
+            return lookup(index(ascii(bytes[offset]), ascii(bytes[offset + 1]), ascii(bytes[offset + 2])), BY_ALPHA3);
+        }
+
+        return UNKNOWN;
+    }
+
+    /**
+     * Get the Country for this ISO-3166 standard code, held as ASCII bytes
+     * within a buffer. The buffer's position is not changed.
+     *
+     * @param buffer The buffer
+     * @param index The absolute index of the first byte of the code
+     * @param length The length of the code
+     * @return The corresponding Country object
+     * @see #of(String)
+     */
+    public static Country of(ByteBuffer buffer, int index, int length) {
+        if (length == 2) {
+            return lookup(index(ascii(buffer.get(index)), ascii(buffer.get(index + 1))), BY_ALPHA2);
+        } else if (length == 3) {
+            return lookup(index(ascii(buffer.get(index)), ascii(buffer.get(index + 1)), ascii(buffer.get(index + 2))), BY_ALPHA3);
         }
 
         return UNKNOWN;
@@ -120,20 +215,38 @@ public class Country {
             .collect(Collectors.toUnmodifiableSet());
     }
 
-    @Override
-    public int hashCode() {
-        int hash = 7;
-        hash = 23 * hash + Objects.hashCode(alpha2);
-        return hash;
+    private static Country lookup(int index, Country[] table) {
+        Country country = (index >= 0) ? table[index] : null;
+        return (country != null) ? country : UNKNOWN;
     }
 
-    @Override
-    public boolean equals(Object other) {
-        if (other != null && other instanceof Country that) {
-            return this.alpha2.equals(that.alpha2);
-        }
+    private static int index(char first, char second) {
+        int a = letter(first);
+        int b = letter(second);
+
+        return ((a | b) >= 0) ? a * LETTERS + b : -1;
+    }
 
-        return false;
+    private static int index(char first, char second, char third) {
+        int a = letter(first);
+        int b = letter(second);
+        int c = letter(third);
+
+        return ((a | b | c) >= 0) ? (a * LETTERS + b) * LETTERS + c : -1;
+    }
+
+    private static char ascii(byte b) {
+        return (char)(b & 0xFF);
+    }
+
+    /**
+     * Map an ASCII letter of either case to its position in the alphabet.
+     * Setting the 0x20 bit folds uppercase onto lowercase, and leaves any
+     * other character outside the alphabet.
+     */
+    private static int letter(char c) {
+        int position = (c | 0x20) - 'a';
+        return (position >= 0 && position < LETTERS) ? position : -1;
     }
 
     /**
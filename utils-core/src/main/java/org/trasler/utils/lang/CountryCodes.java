@@ -23,16 +23,17 @@
  */
 package org.trasler.utils.lang;
 
-import java.util.Locale;
-import java.util.MissingResourceException;
 import java.util.Set;
-import org.apache.commons.collections4.BidiMap;
-import org.apache.commons.collections4.bidimap.DualHashBidiMap;
 
 /**
  * Helper class for ISO-3166 country codes. It provides canned collections of
  * country codes, and a bi-directional map between alpha-2 and alpha-3 codes.
  * All codes are in uppercase.
+ * <p>
+ * The codes are held as constant tables generated from the JDK's locale data
+ * by CountryCodesGenerator, in the test sources, rather than read from that
+ * data on startup. Scanning the available locales is slow, and its result
+ * varies between JDKs; run the generator on a new JDK to check for changes.
  *
  * @author Simon Trasler
  */
@@ -40,7 +41,7 @@ public class CountryCodes {
     public static final Set<String> EU_COUNTRY_CODES = Set.of(
             "AT", "BE", "BG", "HR", "CY", "CZ", "DK", "EE",
             "FI", "FR", "DE", "GR", "HU", "IE", "IT", "LV",
-            "LT", "LU", "MT", "NE", "PL", "PT", "RO", "SK",
+            "LT", "LU", "MT", "NL", "PL", "PT", "RO", "SK",
             "SI", "ES", "SE");
 
     public static final Set<String> EFTA_COUNTRY_CODES = Set.of("IS", "LI", "NO");
@@ -49,27 +50,36 @@ public class CountryCodes {
 
     public static final Set<String> GDPR_COUNTRY_CODES = CollectionUtils.union(EEA_COUNTRY_CODES, Set.of("GB"));
 
-    private static final BidiMap<String, String> MAP = new DualHashBidiMap<>();
-
-    static {
-        MAP.clear();
-
-        Locale[] availableLocales = Locale.getAvailableLocales();
-
-        for (Locale locale : availableLocales) {
-            String alpha2 = locale.getCountry();
-
-            if (alpha2.length() == 2) {
-                try {
-                    MAP.put(alpha2, locale.getISO3Country());
-                } catch (MissingResourceException e) {
-                    // Suppress, as this exception will occur for some codes that
-                    // are reserved in ISO-3166 though not formally recognized,
-                    // e.g., CS for Czechoslovakia and XK for Kosovo.
-                }
-            }
-        }
-    }
+    // Generated by CountryCodesGenerator on JDK 21: every alpha-2 code in order,
+    // packed together, and the corresponding alpha-3 codes in the same order.
+    static final String ALPHA2_CODES =
+            "ADAEAFAGAIALAMAOARASATAUAWAXAZBABBBDBEBF"
+            + "BGBHBIBJBLBMBNBOBQBRBSBTBWBYBZCACCCDCFCG"
+            + "CHCICKCLCMCNCOCRCUCVCWCXCYCZDEDJDKDMDODZ"
+            + "ECEEEGEHERESETFIFJFKFMFOFRGAGBGDGEGFGGGH"
+            + "GIGLGMGNGPGQGRGTGUGWGYHKHNHRHTHUIDIEILIM"
+            + "INIOIQIRISITJEJMJOJPKEKGKHKIKMKNKPKRKWKY"
+            + "KZLALBLCLILKLRLSLTLULVLYMAMCMDMEMFMGMHMK"
+            + "MLMMMNMOMPMQMRMSMTMUMVMWMXMYMZNANCNENFNG"
+            + "NINLNONPNRNUNZOMPAPEPFPGPHPKPLPMPNPRPSPT"
+            + "PWPYQARERORSRURWSASBSCSDSESGSHSISJSKSLSM"
+            + "SNSOSRSSSTSVSXSYSZTCTDTGTHTJTKTLTMTNTOTR"
+            + "TTTVTWTZUAUGUMUSUYUZVAVCVEVGVIVNVUWFWSYE"
+            + "YTZAZMZW";
+    static final String ALPHA3_CODES =
+            "ANDAREAFGATGAIAALBARMAGOARGASMAUTAUSABWALAAZEBIHBRBBGDBELBFA"
+            + "BGRBHRBDIBENBLMBMUBRNBOLBESBRABHSBTNBWABLRBLZCANCCKCODCAFCOG"
+            + "CHECIVCOKCHLCMRCHNCOLCRICUBCPVCUWCXRCYPCZEDEUDJIDNKDMADOMDZA"
+            + "ECUESTEGYESHERIESPETHFINFJIFLKFSMFROFRAGABGBRGRDGEOGUFGGYGHA"
+            + "GIBGRLGMBGINGLPGNQGRCGTMGUMGNBGUYHKGHNDHRVHTIHUNIDNIRLISRIMN"
+            + "INDIOTIRQIRNISLITAJEYJAMJORJPNKENKGZKHMKIRCOMKNAPRKKORKWTCYM"
+            + "KAZLAOLBNLCALIELKALBRLSOLTULUXLVALBYMARMCOMDAMNEMAFMDGMHLMKD"
+            + "MLIMMRMNGMACMNPMTQMRTMSRMLTMUSMDVMWIMEXMYSMOZNAMNCLNERNFKNGA"
+            + "NICNLDNORNPLNRUNIUNZLOMNPANPERPYFPNGPHLPAKPOLSPMPCNPRIPSEPRT"
+            + "PLWPRYQATREUROUSRBRUSRWASAUSLBSYCSDNSWESGPSHNSVNSJMSVKSLESMR"
+            + "SENSOMSURSSDSTPSLVSXMSYRSWZTCATCDTGOTHATJKTKLTLSTKMTUNTONTUR"
+            + "TTOTUVTWNTZAUKRUGAUMIUSAURYUZBVATVCTVENVGBVIRVNMVUTWLFWSMYEM"
+            + "MYTZAFZMBZWE";
 
     /**
      * Map the ISO-3166 alpha-2 country code to its alpha-3 equivalent.
@@ -79,7 +89,8 @@ public class CountryCodes {
      * available, null otherwise
      */
     public static String getAlpha3CountryCode(String alpha2) {
-        return MAP.get(alpha2);
+        Country country = Country.of(alpha2);
+        return (country != Country.UNKNOWN && country.getAlpha2().equals(alpha2)) ? country.getAlpha3() : null;
     }
 
     /**
@@ -90,6 +101,7 @@ public class CountryCodes {
      * available, null otherwise
      */
     public static String getAlpha2CountryCode(String alpha3) {
-        return MAP.inverseBidiMap().get(alpha3);
+        Country country = Country.of(alpha3);
+        return (country != Country.UNKNOWN && country.getAlpha3().equals(alpha3)) ? country.getAlpha2() : null;
     }
 }
@@ -0,0 +1,215 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of countries, held as a bitset over the countries' ordinals.
+ * Membership is a single bit test, and union and intersection are a handful of
+ * word operations, so it suits group checks on every request, e.g., whether
+ * GDPR applies. The unknown country is never a member.
+ *
+ * @author Simon Trasler
+ */
+public class CountrySet extends AbstractSet<Country> {
+    private final long[] bits;
+    private final int size;
+
+    private CountrySet(long[] bits) {
+        this.bits = bits;
+
+        int count = 0;
+
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+
+        this.size = count;
+    }
+
+    /**
+     * Construct the set of countries for these ISO-3166 standard codes,
+     * whether alpha-2 or alpha-3, uppercase or lowercase. Codes that are not
+     * recognized are ignored.
+     *
+     * @param codes A collection of codes
+     * @return The set of corresponding countries
+     */
+    public static CountrySet of(Collection<String> codes) {
+        long[] bits = newBits();
+
+        for (String code : codes) {
+            set(bits, Country.of(code));
+        }
+
+        return new CountrySet(bits);
+    }
+
+    /**
+     * Construct the set of these countries. The unknown country is ignored.
+     *
+     * @param countries The countries
+     * @return The set of countries
+     */
+    public static CountrySet of(Country... countries) {
+        long[] bits = newBits();
+
+        for (Country country : countries) {
+            set(bits, country);
+        }
+
+        return new CountrySet(bits);
+    }
+
+    /**
+     * Get the set of countries in either this set or the other.
+     *
+     * @param other The other set
+     * @return The union
+     */
+    public CountrySet union(CountrySet other) {
+        long[] result = newBits();
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bits[i] | other.bits[i];
+        }
+
+        return new CountrySet(result);
+    }
+
+    /**
+     * Get the set of countries in both this set and the other.
+     *
+     * @param other The other set
+     * @return The intersection
+     */
+    public CountrySet intersection(CountrySet other) {
+        long[] result = newBits();
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bits[i] & other.bits[i];
+        }
+
+        return new CountrySet(result);
+    }
+
+    /**
+     * Test whether a country is in this set, without the type check of
+     * {@link #contains(Object)}.
+     *
+     * @param country The country
+     * @return True if the country is in this set
+     */
+    public boolean contains(Country country) {
+        int ordinal = country.getOrdinal();
+        return ordinal >= 0 && (bits[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    @Override
+    public boolean contains(Object other) {
+        return other instanceof Country country && contains(country);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Country> iterator() {
+        return new Iterator<>() {
+            private int next = nextOrdinal(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Country next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+
+                Country country = Country.ofOrdinal(next);
+                next = nextOrdinal(next + 1);
+                return country;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof CountrySet that) {
+            return Arrays.equals(this.bits, that.bits);
+        }
+
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        // Consistent with the contract of Set, as required by equals.
+        return super.hashCode();
+    }
+
+    private int nextOrdinal(int from) {
+        int word = from >>> 6;
+
+        if (word >= bits.length) {
+            return -1;
+        }
+
+        long remaining = bits[word] & (-1L << from);
+
+        while (remaining == 0) {
+            if (++word >= bits.length) {
+                return -1;
+            }
+
+            remaining = bits[word];
+        }
+
+        return word * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static long[] newBits() {
+        // Not held in a static field, as this class and Country refer to each
+        // other during class initialization.
+        return new long[(Country.COUNT + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    private static void set(long[] bits, Country country) {
+        int ordinal = country.getOrdinal();
+
+        if (ordinal >= 0) {
+            bits[ordinal >>> 6] |= 1L << ordinal;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative values, such as latencies in nanoseconds, whose
+ * observations decay exponentially so that quantiles track recent behaviour.
+ * Buckets are log-linear, eight per power of two, giving a relative error of
+ * at most 12.5% over values up to 2^41; larger values share the top bucket.
+ * Memory is fixed at a few kilobytes.
+ * <p>
+ * Decay is applied by growing the weight of each new observation rather than
+ * shrinking all earlier ones, so recording is O(1). Methods are synchronized.
+ *
+ * @author Simon Trasler
+ */
+public class DecayingHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAXIMUM_EXPONENT = 40;
+    private static final int BUCKETS = (MAXIMUM_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    // Rescale before the weights approach the limits of a double.
+    private static final double RESCALE_THRESHOLD = 1e200;
+
+    private final double growth;
+    private final double[] weights = new double[BUCKETS];
+
+    private double total;
+    private double increment = 1.0;
+
+    /**
+     * Create a histogram.
+     *
+     * @param halflife The half-life of any observation, measured in
+     * observations. It must be a positive number.
+     */
+    public DecayingHistogram(double halflife) {
+        if (!(halflife > 0.0)) {
+            throw new IllegalArgumentException("Halflife must be a positive number");
+        }
+
+        this.growth = Math.pow(2.0, 1.0 / halflife);
+    }
+
+    /**
+     * Record an observation. Negative values are recorded as zero.
+     *
+     * @param value The value
+     */
+    public synchronized void record(long value) {
+        weights[index(value)] += increment;
+        total += increment;
+        increment *= growth;
+
+        if (increment > RESCALE_THRESHOLD) {
+            for (int i = 0; i < BUCKETS; i++) {
+                weights[i] /= increment;
+            }
+            total /= increment;
+            increment = 1.0;
+        }
+    }
+
+    /**
+     * Estimate the value at the given quantile of the decayed observations.
+     *
+     * @param quantile The quantile, from 0.0 to 1.0
+     * @return The estimated value, or 0 if nothing has been recorded
+     */
+    public synchronized long quantile(double quantile) {
+        double target = quantile * total;
+        double cumulative = 0.0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += weights[i];
+
+            if (cumulative >= target && weights[i] > 0.0) {
+                // Report the middle of the bucket.
+                return (lowerBound(i) + lowerBound(i + 1) - 1) / 2;
+            }
+        }
+
+        return 0L;
+    }
+
+    /**
+     * Discard all observations.
+     */
+    public synchronized void clear() {
+        Arrays.fill(weights, 0.0);
+        total = 0.0;
+        increment = 1.0;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int)Math.max(value, 0L);
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+        if (exponent > MAXIMUM_EXPONENT) {
+            return BUCKETS - 1;
+        }
+
+        int mantissa = (int)(value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        int mantissa = index % SUB_BUCKETS;
+        return (long)(SUB_BUCKETS + mantissa) << (exponent - SUB_BITS);
+    }
+}
@@ -23,22 +23,269 @@
  */
 package org.trasler.utils.lang;
 
-import java.util.Random;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 /**
+ * Source of random decisions. By default each thread draws from its own
+ * ThreadLocalRandom, so threads never contend on a shared seed. Callers may
+ * install a different per-thread generator, for example one of the JDK's
+ * L64X128 family, or a seeded mode that makes tests reproducible.
  *
  * @author Simon Trasler
  */
 public class Randomizer {
-    private static final Random random = new Random();
+    // Per-thread generators, or null to use ThreadLocalRandom.
+    private static volatile ThreadLocal<RandomGenerator> generators;
+
+    // Generators installed for the duration of a call, and the number of such
+    // calls in progress, so that the common case skips the lookup.
+    private static final ThreadLocal<RandomGenerator> SCOPED = new ThreadLocal<>();
+    private static final AtomicInteger scopes = new AtomicInteger();
+
+    /**
+     * Get the generator for the current thread. The result must not be shared
+     * with other threads.
+     *
+     * @return The generator
+     */
+    public static RandomGenerator current() {
+        if (scopes.get() != 0) {
+            RandomGenerator scoped = SCOPED.get();
+
+            if (scoped != null) {
+                return scoped;
+            }
+        }
+
+        ThreadLocal<RandomGenerator> local = generators;
+        return (local != null) ? local.get() : ThreadLocalRandom.current();
+    }
 
     public static boolean decide(double rate) {
+        return decide(rate, current());
+    }
+
+    public static boolean decide(double rate, RandomGenerator generator) {
         if (rate <= 0.0) {
             return false;
         } else if (rate >= 1.0) {
             return true;
         } else {
-            return (random.nextDouble() < rate);
+            return (generator.nextDouble() < rate);
         }
     }
+
+    /**
+     * Make a number of independent decisions at once, returning how many are
+     * positive. This draws one random number per positive decision, or per
+     * negative decision if fewer are expected, rather than one per decision.
+     *
+     * @param trials The number of decisions
+     * @param rate The chance of each decision being positive
+     * @return The number of positive decisions
+     */
+    public static int decideCount(int trials, double rate) {
+        return decideCount(trials, rate, current());
+    }
+
+    public static int decideCount(int trials, double rate, RandomGenerator generator) {
+        if (trials < 0) {
+            throw new IllegalArgumentException("Trials must not be negative");
+        } else if (rate > 0.5) {
+            return trials - decideCount(trials, 1.0 - rate, generator);
+        }
+
+        int count = 0;
+
+        for (long position = -1; ; count++) {
+            long gap = skip(rate, generator);
+
+            if (gap >= trials - position - 1) {
+                return count;
+            }
+
+            position += gap + 1;
+        }
+    }
+
+    /**
+     * Make a number of independent decisions at once, returning them as a
+     * mask in which bit i is set if decision i is positive.
+     *
+     * @param trials The number of decisions, from 0 to 64
+     * @param rate The chance of each decision being positive
+     * @return The mask of positive decisions
+     */
+    public static long decideMask(int trials, double rate) {
+        return decideMask(trials, rate, current());
+    }
+
+    public static long decideMask(int trials, double rate, RandomGenerator generator) {
+        if (trials < 0 || trials > Long.SIZE) {
+            throw new IllegalArgumentException("Trials must be between 0 and " + Long.SIZE);
+        }
+
+        boolean invert = (rate > 0.5);
+        double sparseRate = invert ? 1.0 - rate : rate;
+        long mask = 0L;
+
+        for (long position = -1; ; ) {
+            long gap = skip(sparseRate, generator);
+
+            if (gap >= trials - position - 1) {
+                break;
+            }
+
+            position += gap + 1;
+            mask |= 1L << position;
+        }
+
+        if (invert) {
+            mask = ~mask & ((trials == Long.SIZE) ? -1L : (1L << trials) - 1);
+        }
+
+        return mask;
+    }
+
+    /**
+     * Make a number of independent decisions at once, setting bit i of the
+     * BitSet if decision i is positive, and clearing it otherwise.
+     *
+     * @param bits The BitSet to fill
+     * @param trials The number of decisions
+     * @param rate The chance of each decision being positive
+     */
+    public static void decideBits(BitSet bits, int trials, double rate) {
+        decideBits(bits, trials, rate, current());
+    }
+
+    public static void decideBits(BitSet bits, int trials, double rate, RandomGenerator generator) {
+        if (trials < 0) {
+            throw new IllegalArgumentException("Trials must not be negative");
+        }
+
+        boolean invert = (rate > 0.5);
+        double sparseRate = invert ? 1.0 - rate : rate;
+
+        // Start with the common outcome, then flip the rare ones.
+        bits.set(0, trials, invert);
+
+        for (long position = -1; ; ) {
+            long gap = skip(sparseRate, generator);
+
+            if (gap >= trials - position - 1) {
+                break;
+            }
+
+            position += gap + 1;
+            bits.set((int)position, !invert);
+        }
+    }
+
+    /**
+     * Draw the number of negative decisions before the next positive one, for
+     * independent decisions at the given rate. This follows a geometric
+     * distribution.
+     *
+     * @param rate The chance of each decision being positive
+     * @return The number of negative decisions, or Long.MAX_VALUE if the rate
+     * is zero
+     */
+    public static long skip(double rate) {
+        return skip(rate, current());
+    }
+
+    public static long skip(double rate, RandomGenerator generator) {
+        if (rate <= 0.0) {
+            return Long.MAX_VALUE;
+        } else if (rate >= 1.0) {
+            return 0L;
+        }
+
+        // Invert the geometric distribution's CDF. The uniform draw is in
+        // [0, 1), so the logarithm is finite.
+        return (long)Math.floor(Math.log1p(-generator.nextDouble()) / Math.log1p(-rate));
+    }
+
+    /**
+     * Run an action on the current thread with all decisions drawn from this
+     * generator, e.g., to replay a simulation reproducibly, without affecting
+     * other threads. Calls may be nested.
+     *
+     * @param <T> The type of the result
+     * @param generator The generator
+     * @param action The action
+     * @return The result of the action
+     */
+    public static <T> T withGenerator(RandomGenerator generator, Supplier<T> action) {
+        RandomGenerator previous = SCOPED.get();
+
+        SCOPED.set(generator);
+        scopes.incrementAndGet();
+
+        try {
+            return action.get();
+        } finally {
+            scopes.decrementAndGet();
+
+            if (previous != null) {
+                SCOPED.set(previous);
+            } else {
+                SCOPED.remove();
+            }
+        }
+    }
+
+    /**
+     * Give each thread its own generator from this factory, created on the
+     * thread's first use.
+     *
+     * @param factory The factory, called once per thread
+     */
+    public static void useGenerators(Supplier<RandomGenerator> factory) {
+        generators = ThreadLocal.withInitial(factory);
+    }
+
+    /**
+     * Give each thread its own generator using the named algorithm, e.g.,
+     * "L64X128MixRandom".
+     *
+     * @param algorithm The name of the algorithm
+     * @throws IllegalArgumentException If the algorithm is not available
+     */
+    public static void useAlgorithm(String algorithm) {
+        RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(algorithm);
+        useGenerators(factory::create);
+    }
+
+    /**
+     * Make all decisions deterministic for the given seed. Each thread gets a
+     * generator split from a single seeded root, so the sequence seen by a
+     * thread depends only on the seed and on the order in which threads first
+     * draw. Intended for tests.
+     *
+     * @param seed The seed
+     */
+    public static void useSeed(long seed) {
+        SplittableRandom root = new SplittableRandom(seed);
+
+        useGenerators(() -> {
+            synchronized (root) {
+                return root.split();
+            }
+        });
+    }
+
+    /**
+     * Revert to ThreadLocalRandom.
+     */
+    public static void useDefault() {
+        generators = null;
+    }
 }
@@ -0,0 +1,77 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counter for heavy concurrent writes, e.g., a request count
+ * shared by every event loop. Updates are spread over cells that are added
+ * only under contention, so threads rarely touch the same cache line, at the
+ * cost of a slower, non-atomic {@link #count()}.
+ * <p>
+ * Unlike {@link Counter}, updates do not return the new count, and there is no
+ * compareAndSwap, as neither can be had without reading every cell.
+ * <p>
+ * The counter is a LongAdder behind Counter's vocabulary, so that a call site
+ * can move between Counter, AtomicCounter and this class as its contention
+ * changes, without taking on the rest of the LongAdder API.
+ *
+ * @author Simon Trasler
+ */
+public class StripedCounter {
+    private final LongAdder count = new LongAdder();
+
+    public void decrement() {
+        count.decrement();
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void increment(int add) {
+        count.add(add);
+    }
+
+    /**
+     * Get the count. Updates made concurrently with this call may or may not
+     * be included.
+     *
+     * @return The count
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Get the count and reset it to zero, e.g., to report the count for each
+     * interval. Updates made concurrently with this call may be lost.
+     *
+     * @return The count before the reset
+     */
+    public long countThenReset() {
+        return count.sumThenReset();
+    }
+}
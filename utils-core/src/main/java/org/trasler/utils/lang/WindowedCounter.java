@@ -0,0 +1,181 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe count of events within a rolling window of time, e.g., for
+ * throttling, dashboards or rate-based Deciders. The window is divided into a
+ * ring of buckets, each covering an equal slice of time. There is no
+ * background thread: a bucket is reclaimed by the first increment that finds
+ * it holding a count from an earlier lap of the ring.
+ * <p>
+ * Each bucket packs the number of the time slice it counts into its high 32
+ * bits and the count into its low 32 bits, so an increment is a single
+ * compare-and-set. A bucket holds at most 2^32-1 events; further events in
+ * the same bucket are not counted, so a sum saturates rather than wraps.
+ *
+ * @author Simon Trasler
+ */
+public class WindowedCounter {
+    private final long bucketNanos;
+    private final int buckets;
+    private final LongSupplier nanoClock;
+    private final AtomicLongArray slots;
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private WindowedCounter(Builder builder) {
+        this.buckets = builder.buckets;
+        this.bucketNanos = builder.window.toNanos() / buckets;
+        this.nanoClock = builder.nanoClock;
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * Count a single event.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Count a number of events.
+     *
+     * @param count The number of events, which must not be negative
+     */
+    public void add(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+
+        long slice = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        int index = (int)Math.floorMod(slice, (long)buckets);
+        long tag = (slice & COUNT_MASK) << 32;
+
+        long current;
+        long updated;
+
+        do {
+            current = slots.get(index);
+
+            // Either add to the current slice, saturating so as not to carry
+            // into the tag, or reclaim the bucket from an earlier lap of the
+            // ring.
+            updated = ((current & ~COUNT_MASK) == tag)
+                    ? tag | Math.min((current & COUNT_MASK) + count, COUNT_MASK)
+                    : tag | count;
+        } while (!slots.compareAndSet(index, current, updated));
+    }
+
+    /**
+     * Get the number of events within the window, which spans the current,
+     * partial bucket and the full buckets before it.
+     *
+     * @return The number of events
+     */
+    public long sum() {
+        return sum(nanoClock.getAsLong());
+    }
+
+    /**
+     * Get the rate of events within the window. The window covers only part
+     * of the current bucket, so the time it spans is less than the configured
+     * length by up to one bucket; the rate is the sum divided by the time
+     * actually spanned. With few buckets, that is short just after a bucket
+     * starts, and the rate is noisier.
+     *
+     * @return The number of events per second
+     */
+    public double rate() {
+        long now = nanoClock.getAsLong();
+        long spanned = (buckets - 1) * bucketNanos + Math.floorMod(now, bucketNanos) + 1;
+
+        return sum(now) * 1e9 / spanned;
+    }
+
+    private long sum(long now) {
+        long slice = Math.floorDiv(now, bucketNanos);
+        long sum = 0;
+
+        for (int i = 0; i < buckets; i++) {
+            long current = slots.get(i);
+
+            // The age of the bucket, in slices, modulo 2^32.
+            int age = (int)slice - (int)(current >>> 32);
+
+            if (age >= 0 && age < buckets) {
+                sum += current & COUNT_MASK;
+            }
+        }
+
+        return sum;
+    }
+
+    public static class Builder {
+        /**
+         * The length of the window. It must be provided.
+         */
+        private Duration window;
+
+        /**
+         * The number of buckets in the window. More buckets make the window
+         * roll more smoothly, at the cost of a slower sum. Defaults to 10.
+         */
+        private int buckets = 10;
+
+        /**
+         * The source of time in nanoseconds. Defaults to System.nanoTime.
+         */
+        private LongSupplier nanoClock = System::nanoTime;
+
+        public Builder withWindow(Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        public Builder withBuckets(int buckets) {
+            this.buckets = buckets;
+            return this;
+        }
+
+        public Builder withNanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public WindowedCounter build() {
+            if (buckets < 1) {
+                throw new IllegalArgumentException("Buckets must be a positive number");
+            } else if (window == null || window.toNanos() < buckets) {
+                throw new IllegalArgumentException("Window must be at least one nanosecond per bucket");
+            }
+
+            return new WindowedCounter(this);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class CompositeAccessorTest {
+    private static final int REQUEST = 0;
+    private static final int PROFILE = 1;
+
+    private static final CompositeAccessor.Layout<String> LAYOUT = new CompositeAccessor.Layout.Builder<String>()
+            .withKeys(REQUEST, "a")
+            .withKeys(PROFILE, "b")
+            .withDerivedKey("ab", accessor -> accessor.get("a") + accessor.get("b"))
+            .build();
+
+    @Test
+    public void testRouting() {
+        CompositeAccessor<String> accessor = new CompositeAccessor<>(LAYOUT)
+                .withSource(REQUEST, new MapAccessor<>(Map.of("a", "a1", "b", "wrong")))
+                .withSource(PROFILE, new MapAccessor<>(Map.of("b", "b2")));
+
+        assertEquals("a1", accessor.get("a"));
+        assertEquals("b2", accessor.get("b"));
+        assertEquals("a1b2", accessor.get("ab"));
+        assertNull(accessor.get("c"));
+    }
+
+    @Test
+    public void testMemoization() {
+        AtomicInteger calls = new AtomicInteger();
+
+        CompositeAccessor<String> accessor = new CompositeAccessor<>(LAYOUT)
+                .withSource(REQUEST, key -> {
+                    calls.incrementAndGet();
+                    return "a1";
+                })
+                .withSource(PROFILE, new MapAccessor<>(Map.of("b", "b1")));
+
+        accessor.get("a");
+        accessor.get("ab");
+        accessor.get(LAYOUT.getId("a"));
+
+        assertEquals(1, calls.get());
+
+        accessor.reset()
+                .withSource(REQUEST, new MapAccessor<>(Map.of("a", "a2")))
+                .withSource(PROFILE, new MapAccessor<>(Map.of("b", "b1")));
+
+        assertEquals("a2b1", accessor.get("ab"));
+    }
+
+    @Test
+    public void testFailedDerivation() {
+        AtomicInteger calls = new AtomicInteger();
+
+        CompositeAccessor.Layout<String> layout = new CompositeAccessor.Layout.Builder<String>()
+                .withDerivedKey("d", accessor -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new IllegalArgumentException("boom");
+                    }
+                    return "d1";
+                })
+                .build();
+
+        CompositeAccessor<String> accessor = new CompositeAccessor<>(layout);
+
+        try {
+            accessor.get("d");
+            fail("Expected the derivation to fail");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("boom", e.getMessage());
+        }
+
+        // The failure is not memoized, nor mistaken for a circular derivation.
+        assertEquals("d1", accessor.get("d"));
+    }
+
+    @Test
+    public void testTrieConfig() {
+        TrieConfig<Integer> trieConfig = new TrieConfig.Builder<Integer>()
+                .withKeys(List.of("ab"))
+                .withValues(new TrieConfigNode.Builder<Integer>()
+                        .withMap(Map.of(
+                                "a1b1", new TrieConfigNode.Builder<Integer>()
+                                        .withValue(1)
+                                        .build()))
+                        .withValue(2))
+                .build();
+
+        CompositeAccessor<String> accessor = new CompositeAccessor<>(LAYOUT)
+                .withSource(REQUEST, new MapAccessor<>(Map.of("a", "a1")))
+                .withSource(PROFILE, new MapAccessor<>(Map.of("b", "b1")));
+
+        assertEquals(Integer.valueOf(1), trieConfig.get(accessor));
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class AdaptiveLimitDeciderTest {
+    private static final long FAST = 1_000_000L;
+    private static final long SLOW = 10_000_000L;
+
+    @Test
+    public void testLimit() {
+        AdaptiveLimitDecider decider = new AdaptiveLimitDecider.Builder()
+                .withInitialLimit(2.0)
+                .build();
+
+        assertTrue(decider.decide());
+        assertTrue(decider.decide());
+        assertFalse(decider.decide());
+
+        decider.onSuccess(FAST);
+        assertTrue(decider.decide());
+        assertEquals(2, decider.getInFlight());
+    }
+
+    @Test
+    public void testBackoffOnLatency() {
+        AdaptiveLimitDecider decider = new AdaptiveLimitDecider.Builder()
+                .withInitialLimit(10.0)
+                .build();
+
+        decider.decide();
+        decider.onSuccess(FAST);
+
+        // The first slow response backs off, and the rest of that limit's
+        // worth of responses do not.
+        for (int i = 0; i < 10; i++) {
+            decider.decide();
+            decider.onSuccess(SLOW);
+            assertEquals(9.0, decider.getLimit(), 1e-9);
+        }
+
+        decider.decide();
+        decider.onSuccess(SLOW);
+        assertEquals(8.1, decider.getLimit(), 1e-9);
+    }
+
+    @Test
+    public void testBackoffOncePerWindow() {
+        AdaptiveLimitDecider decider = new AdaptiveLimitDecider.Builder()
+                .withInitialLimit(10.0)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            decider.decide();
+        }
+
+        // A burst of failures for requests sent under one limit backs off once.
+        for (int i = 0; i < 10; i++) {
+            decider.onFailure();
+        }
+
+        assertEquals(9.0, decider.getLimit(), 1e-9);
+
+        decider.decide();
+        decider.onFailure();
+        assertEquals(8.1, decider.getLimit(), 1e-9);
+    }
+
+    @Test
+    public void testBaselineIgnoresOutlier() {
+        AdaptiveLimitDecider decider = new AdaptiveLimitDecider.Builder()
+                .withInitialLimit(10.0)
+                .build();
+
+        decider.decide();
+        decider.onSuccess(FAST);
+        decider.decide();
+        decider.onSuccess(FAST / 100);
+
+        for (int i = 0; i < 100; i++) {
+            decider.decide();
+            decider.onSuccess(FAST);
+        }
+
+        assertEquals(10.0, decider.getLimit(), 1e-9);
+        assertEquals(FAST, decider.getBaselineNanos(), FAST * 0.01);
+    }
+
+    @Test
+    public void testBaselineFollowsPercentile() {
+        AdaptiveLimitDecider decider = new AdaptiveLimitDecider.Builder()
+                .withBaselineHalflife(10.0)
+                .withBaselinePercentile(0.25)
+                .build();
+
+        // Every fourth response is fast, so the baseline settles between the
+        // fast and slow latencies.
+        for (int i = 0; i < 10_000; i++) {
+            decider.decide();
+            decider.onSuccess((i % 4 == 0) ? FAST : SLOW);
+        }
+
+        double baseline = decider.getBaselineNanos();
+        assertTrue(baseline > FAST && baseline < SLOW);
+
+        // When the downstream speeds up, the baseline follows it down.
+        for (int i = 0; i < 1_000; i++) {
+            decider.decide();
+            decider.onSuccess(FAST / 2);
+        }
+
+        assertEquals(FAST / 2, decider.getBaselineNanos(), FAST * 0.1);
+    }
+
+    @Test
+    public void testIncreaseUnderLoad() {
+        AdaptiveLimitDecider decider = new AdaptiveLimitDecider.Builder()
+                .withInitialLimit(4.0)
+                .build();
+
+        for (int i = 0; i < 4; i++) {
+            decider.decide();
+        }
+
+        decider.onSuccess(FAST);
+        assertEquals(4.25, decider.getLimit(), 1e-9);
+
+        // With little in flight, the limit holds steady.
+        decider.onSuccess(FAST);
+        decider.onSuccess(FAST);
+        decider.onSuccess(FAST);
+        assertEquals(4.25, decider.getLimit(), 1e-9);
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class CircuitBreakerDeciderTest {
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final CircuitBreakerDecider decider = new CircuitBreakerDecider.Builder()
+            .withWindowSize(10)
+            .withMinimumVolume(5)
+            .withFailureRatio(0.5)
+            .withOpenDuration(OPEN_DURATION)
+            .withProbeRate(1.0)
+            .withProbeSuccesses(2)
+            .withMaximumProbes(2)
+            .withNanoClock(clock::get)
+            .build();
+
+    @Test
+    public void testMinimumVolume() {
+        for (int i = 0; i < 4; i++) {
+            decider.onFailure();
+        }
+
+        assertEquals(CircuitBreakerDecider.State.CLOSED, decider.getState());
+        assertTrue(decider.decide());
+
+        decider.onFailure();
+        assertEquals(CircuitBreakerDecider.State.OPEN, decider.getState());
+        assertFalse(decider.decide());
+    }
+
+    @Test
+    public void testFailureRatio() {
+        for (int i = 0; i < 30; i++) {
+            decider.onSuccess();
+            decider.onSuccess();
+            decider.onFailure();
+        }
+
+        assertEquals(CircuitBreakerDecider.State.CLOSED, decider.getState());
+
+        decider.onFailure();
+        decider.onFailure();
+        assertEquals(CircuitBreakerDecider.State.OPEN, decider.getState());
+    }
+
+    @Test
+    public void testRecovery() {
+        trip();
+
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(decider.decide());
+        assertEquals(CircuitBreakerDecider.State.HALF_OPEN, decider.getState());
+        assertTrue(decider.decide());
+
+        decider.onSuccess();
+        decider.onSuccess();
+        assertEquals(CircuitBreakerDecider.State.CLOSED, decider.getState());
+
+        // The window starts afresh.
+        decider.onFailure();
+        assertEquals(CircuitBreakerDecider.State.CLOSED, decider.getState());
+    }
+
+    @Test
+    public void testFailedProbe() {
+        trip();
+
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(decider.decide());
+
+        decider.onFailure();
+        assertEquals(CircuitBreakerDecider.State.OPEN, decider.getState());
+        assertFalse(decider.decide());
+    }
+
+    @Test
+    public void testProbeCap() {
+        trip();
+
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(decider.decide());
+        assertTrue(decider.decide());
+        assertFalse(decider.decide());
+
+        decider.onSuccess();
+        assertEquals(CircuitBreakerDecider.State.HALF_OPEN, decider.getState());
+        assertTrue(decider.decide());
+    }
+
+    @Test
+    public void testOutcomeWithoutProbe() {
+        trip();
+
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(decider.decide());
+
+        decider.onSuccess();
+
+        // With no probe in flight, these are not probe outcomes.
+        decider.onSuccess();
+        decider.onFailure();
+        assertEquals(CircuitBreakerDecider.State.HALF_OPEN, decider.getState());
+    }
+
+    @Test
+    public void testStaleTag() {
+        long closed = decider.decideTagged();
+        assertTrue(closed >= 0L);
+
+        trip();
+
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        long first = decider.decideTagged();
+        long second = decider.decideTagged();
+        assertTrue(first >= 0L && first != closed);
+        assertEquals(first, second);
+
+        // A failure for a request made while closed does not re-open it.
+        decider.onFailureTagged(closed);
+        assertEquals(CircuitBreakerDecider.State.HALF_OPEN, decider.getState());
+
+        decider.onSuccessTagged(first);
+        decider.onSuccessTagged(second);
+        assertEquals(CircuitBreakerDecider.State.CLOSED, decider.getState());
+
+        // Nor does a late probe failure once closed.
+        for (int i = 0; i < 5; i++) {
+            decider.onFailureTagged(first);
+        }
+        assertEquals(CircuitBreakerDecider.State.CLOSED, decider.getState());
+    }
+
+    @Test
+    public void testReopenDelay() {
+        trip();
+
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(decider.decide());
+        decider.onFailure();
+
+        // The delay runs from the re-opening, not the first opening.
+        clock.addAndGet(OPEN_DURATION.toNanos() - 1);
+        assertFalse(decider.decide());
+        clock.incrementAndGet();
+        assertTrue(decider.decide());
+    }
+
+    private void trip() {
+        for (int i = 0; i < 5; i++) {
+            decider.onFailure();
+        }
+        assertEquals(CircuitBreakerDecider.State.OPEN, decider.getState());
+    }
+}
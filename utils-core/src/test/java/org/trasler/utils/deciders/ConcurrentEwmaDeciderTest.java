@@ -0,0 +1,89 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.trasler.utils.lang.ConcurrentUpdates;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class ConcurrentEwmaDeciderTest {
+    private static final double INITIAL_HALFLIFE = 10.0;
+
+    @Test
+    public void testInitializedOn() {
+        ConcurrentEwmaDecider decider = new ConcurrentEwmaDecider.Builder()
+                .withHalflife(INITIAL_HALFLIFE)
+                .withInitialRate(1.0)
+                .build();
+
+        assertTrue(decider.decide());
+    }
+
+    @Test
+    public void testInitializedOff() {
+        ConcurrentEwmaDecider decider = new ConcurrentEwmaDecider.Builder()
+                .withHalflife(INITIAL_HALFLIFE)
+                .withInitialRate(0.0)
+                .build();
+
+        assertFalse(decider.decide());
+    }
+
+    @Test
+    public void testHalflife() {
+        ConcurrentEwmaDecider decider = new ConcurrentEwmaDecider.Builder()
+                .withHalflife(INITIAL_HALFLIFE)
+                .withInitialRate(1.0)
+                .build();
+
+        for (int i = 0; i < INITIAL_HALFLIFE; i++) {
+            decider.onFailure();
+        }
+
+        assertEquals(0.5, decider.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testNoLostUpdates() throws InterruptedException {
+        int threads = 8;
+        int updates = 10000;
+
+        ConcurrentEwmaDecider decider = new ConcurrentEwmaDecider.Builder()
+                .withHalflife(100000.0)
+                .withInitialRate(0.0)
+                .build();
+
+        ConcurrentUpdates.run(threads, updates, decider::onSuccess);
+
+        // All inputs are equal, so the result does not depend on their order.
+        double expected = 1.0 - Math.pow(Ewma.decay(100000.0), threads * updates);
+        assertEquals(expected, decider.getRate(), 1e-9);
+    }
+}
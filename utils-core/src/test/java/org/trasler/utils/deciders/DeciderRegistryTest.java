@@ -0,0 +1,161 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class DeciderRegistryTest {
+    private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(60);
+    private static final long TICK = IDLE_TIMEOUT.toNanos() / 4;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final DeciderRegistry<String> registry = new DeciderRegistry.Builder()
+            .withTemplate(new EwmaDecider.Builder()
+                    .withHalflife(1.0)
+                    .withInitialRate(1.0))
+            .withCapacity(2)
+            .withIdleTimeout(IDLE_TIMEOUT)
+            .withNanoClock(clock::get)
+            .build();
+
+    @Test
+    public void testIndependentKeys() {
+        Decider a = registry.get("a");
+        Decider b = registry.get("b");
+
+        for (int i = 0; i < 100; i++) {
+            a.onFailure();
+        }
+
+        assertFalse(registry.get("a").decide());
+        assertTrue(registry.get("b").decide());
+        assertSame(b, registry.get("b"));
+    }
+
+    @Test
+    public void testEvictIdle() {
+        registry.get("a");
+        clock.addAndGet(IDLE_TIMEOUT.toNanos() + 1);
+        registry.get("b");
+
+        assertEquals(1, registry.evictIdle());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        Decider a = registry.get("a");
+        clock.addAndGet(TICK);
+        Decider b = registry.get("b");
+        clock.addAndGet(TICK);
+
+        // An outcome marks "a" as used, but a lookup does not mark "b".
+        a.onSuccess();
+        registry.get("b");
+
+        // Full, so "b" is evicted to make room, and later starts afresh.
+        registry.get("c");
+        assertEquals(2, registry.size());
+        assertSame(a, registry.get("a"));
+        assertNotSame(b, registry.get("b"));
+    }
+
+    @Test
+    public void testEvictFreshStart() {
+        Decider a = registry.get("a");
+
+        for (int i = 0; i < 100; i++) {
+            a.onFailure();
+        }
+
+        clock.addAndGet(TICK);
+        registry.get("b").onSuccess();
+        registry.get("c");
+
+        assertTrue(registry.get("a").decide());
+    }
+
+    @Test
+    public void testEvictBatch() {
+        DeciderRegistry<Integer> large = new DeciderRegistry.Builder()
+                .withTemplate(new EwmaDecider.Builder()
+                        .withHalflife(1.0)
+                        .withInitialRate(1.0))
+                .withCapacity(16)
+                .withIdleTimeout(IDLE_TIMEOUT)
+                .withNanoClock(clock::get)
+                .build();
+
+        for (int i = 0; i < 16; i++) {
+            large.get(i);
+            clock.incrementAndGet();
+        }
+
+        // An eighth of the capacity is freed at once, oldest first.
+        Decider newest = large.get(15);
+        large.get(16);
+        assertEquals(15, large.size());
+        assertSame(newest, large.get(15));
+
+        large.get(17);
+        assertEquals(16, large.size());
+    }
+
+    @Test
+    public void testStaleDecider() {
+        DeciderRegistry<String> single = new DeciderRegistry.Builder()
+                .withTemplate(new EwmaDecider.Builder()
+                        .withHalflife(1.0)
+                        .withInitialRate(1.0))
+                .withCapacity(1)
+                .withNanoClock(clock::get)
+                .build();
+
+        Decider a = single.get("a");
+        Decider c = single.get("c");
+
+        // The Decider for "a" outlives its key, but cannot change "c".
+        for (int i = 0; i < 100; i++) {
+            a.onFailure();
+        }
+
+        assertSame(c, single.get("c"));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(c.decide());
+        }
+    }
+}
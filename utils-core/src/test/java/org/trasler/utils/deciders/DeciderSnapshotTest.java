@@ -0,0 +1,246 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class DeciderSnapshotTest {
+    private static final Duration STALENESS = Duration.ofMinutes(5);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("deciders.bin");
+        Clock clock = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+        EwmaDecider saved = newDecider();
+        TimedEwmaDecider savedTimed = newTimedDecider();
+
+        for (int i = 0; i < 20; i++) {
+            saved.onFailure();
+            savedTimed.onFailure();
+        }
+
+        newSnapshot(path, clock)
+                .register("ewma", saved)
+                .register("timed", savedTimed)
+                .register("unused", newDecider())
+                .save();
+
+        EwmaDecider restored = newDecider();
+        TimedEwmaDecider restoredTimed = newTimedDecider();
+
+        int count = newSnapshot(path, clock)
+                .register("ewma", restored)
+                .register("timed", restoredTimed)
+                .load();
+
+        assertEquals(2, count);
+        assertEquals(saved.getRate(), restored.getRate(), 1e-9);
+        assertEquals(savedTimed.getRate(), restoredTimed.getRate(), 1e-3);
+    }
+
+    @Test
+    public void testStaleness() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("deciders.bin");
+
+        EwmaDecider saved = newDecider();
+
+        for (int i = 0; i < 100; i++) {
+            saved.onFailure();
+        }
+
+        newSnapshot(path, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC))
+                .register("ewma", saved)
+                .save();
+
+        // After one staleness half-life, the restored rate is midway between
+        // the saved rate and the initial rate.
+        EwmaDecider restored = newDecider();
+
+        newSnapshot(path, Clock.fixed(Instant.EPOCH.plus(STALENESS), ZoneOffset.UTC))
+                .register("ewma", restored)
+                .load();
+
+        assertEquals((saved.getRate() + 1.0) / 2, restored.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testMissingFile() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("missing.bin");
+
+        EwmaDecider decider = newDecider();
+
+        assertEquals(0, newSnapshot(path, Clock.systemUTC()).register("ewma", decider).load());
+        assertEquals(1.0, decider.getRate(), 1e-9);
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    public void testCorruptLength() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("deciders.bin");
+
+        newSnapshot(path, Clock.systemUTC())
+                .register("ewma", newDecider())
+                .save();
+
+        // Overwrite the length of the first entry's state.
+        byte[] data = Files.readAllBytes(path);
+        int offset = 4 + 4 + 8 + 4 + 2 + "ewma".length();
+        ByteBuffer.wrap(data).putInt(offset, Integer.MAX_VALUE);
+        Files.write(path, data);
+
+        try {
+            newSnapshot(path, Clock.systemUTC()).register("ewma", newDecider()).load();
+            fail("Expected a corrupt snapshot to be rejected");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Corrupt snapshot length"));
+        }
+    }
+
+    @Test
+    public void testCorruptSecondEntry() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("deciders.bin");
+
+        EwmaDecider saved = newDecider();
+
+        for (int i = 0; i < 20; i++) {
+            saved.onFailure();
+        }
+
+        newSnapshot(path, Clock.systemUTC())
+                .register("first", saved)
+                .register("second", newDecider())
+                .save();
+
+        // Overwrite the length of the second entry's state.
+        byte[] data = Files.readAllBytes(path);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int first = 4 + 4 + 8 + 4 + 2 + "first".length();
+        int second = first + 4 + buffer.getInt(first) + 2 + "second".length();
+        buffer.putInt(second, Integer.MAX_VALUE);
+        Files.write(path, data);
+
+        EwmaDecider restored = newDecider();
+
+        try {
+            newSnapshot(path, Clock.systemUTC())
+                    .register("first", restored)
+                    .register("second", newDecider())
+                    .load();
+            fail("Expected a corrupt snapshot to be rejected");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Corrupt snapshot length"));
+        }
+
+        // The valid first entry is not restored from a corrupt file.
+        assertEquals(1.0, restored.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testTrailingBytes() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("deciders.bin");
+
+        newSnapshot(path, Clock.systemUTC())
+                .register("ewma", newDecider())
+                .save();
+
+        byte[] data = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, data.length + 1));
+
+        try {
+            newSnapshot(path, Clock.systemUTC()).register("ewma", newDecider()).load();
+            fail("Expected trailing bytes to be rejected");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Corrupt snapshot with trailing bytes"));
+        }
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("deciders.bin");
+
+        newSnapshot(path, Clock.systemUTC())
+                .register("ewma", newDecider())
+                .save();
+
+        byte[] data = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, data.length - 3));
+
+        try {
+            newSnapshot(path, Clock.systemUTC()).register("ewma", newDecider()).load();
+            fail("Expected a truncated snapshot to be rejected");
+        }
+        catch (IOException e) {
+            // Expected.
+        }
+    }
+
+    private static DeciderSnapshot newSnapshot(Path path, Clock clock) {
+        return new DeciderSnapshot.Builder()
+                .withPath(path)
+                .withStalenessHalflife(STALENESS)
+                .withClock(clock)
+                .build();
+    }
+
+    private static EwmaDecider newDecider() {
+        return new EwmaDecider.Builder()
+                .withHalflife(10)
+                .withInitialRate(1.0)
+                .build();
+    }
+
+    private static TimedEwmaDecider newTimedDecider() {
+        return new TimedEwmaDecider.Builder()
+                .withHalflife(Duration.ofSeconds(10))
+                .withInitialRate(1.0)
+                .withNanoClock(() -> 0L)
+                .build();
+    }
+}
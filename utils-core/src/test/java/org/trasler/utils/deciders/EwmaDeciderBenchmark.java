@@ -0,0 +1,67 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import org.trasler.utils.lang.ContentionBenchmark;
+
+/**
+ * Throughput of the EWMA Deciders under contention. See
+ * {@link ContentionBenchmark}.
+ *
+ * @author Simon Trasler
+ */
+public class EwmaDeciderBenchmark {
+    private static final double HALFLIFE = 10.0;
+
+    public static void main(String[] args) {
+        EwmaDecider ewmaDecider = new EwmaDecider.Builder()
+                .withHalflife(HALFLIFE)
+                .withInitialRate(0.5)
+                .build();
+
+        ConcurrentEwmaDecider concurrentEwmaDecider = new ConcurrentEwmaDecider.Builder()
+                .withHalflife(HALFLIFE)
+                .withInitialRate(0.5)
+                .build();
+
+        StripedEwmaDecider stripedEwmaDecider = new StripedEwmaDecider.Builder()
+                .withHalflife(HALFLIFE)
+                .withInitialRate(0.5)
+                .build();
+
+        // EwmaDecider is not thread-safe, so it loses updates here; it is
+        // included as the baseline cost without coordination.
+        ContentionBenchmark.run("EwmaDecider", () -> run(ewmaDecider));
+        ContentionBenchmark.run("ConcurrentEwmaDecider", () -> run(concurrentEwmaDecider));
+        ContentionBenchmark.run("StripedEwmaDecider", () -> run(stripedEwmaDecider));
+    }
+
+    private static void run(Decider decider) {
+        if (decider.decide()) {
+            decider.onSuccess();
+        } else {
+            decider.onFailure();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class GeometricDeciderTest {
+    private static final int TRIALS = 10_000_000;
+
+    @Test
+    public void testBounds() {
+        GeometricDecider never = new GeometricDecider.Builder()
+                .withRate(0.0)
+                .build();
+
+        GeometricDecider always = new GeometricDecider.Builder()
+                .withRate(1.0)
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(never.decide());
+            assertTrue(always.decide());
+        }
+
+        assertEquals(0, never.decideCount(100));
+        assertEquals(100, always.decideCount(100));
+    }
+
+    @Test
+    public void testRate() {
+        double rate = 1e-3;
+
+        GeometricDecider decider = new GeometricDecider.Builder()
+                .withRate(rate)
+                .build();
+
+        int count = 0;
+        for (int i = 0; i < TRIALS; i++) {
+            count += decider.decide() ? 1 : 0;
+        }
+
+        // Within about four standard deviations.
+        assertEquals(rate, (double)count / TRIALS, 4 * Math.sqrt(rate / TRIALS));
+    }
+
+    @Test
+    public void testDecideCount() {
+        double rate = 1e-3;
+
+        GeometricDecider decider = new GeometricDecider.Builder()
+                .withRate(rate)
+                .build();
+
+        long count = 0;
+        for (int i = 0; i < TRIALS / 1000; i++) {
+            count += decider.decideCount(1000);
+        }
+
+        assertEquals(rate, (double)count / TRIALS, 4 * Math.sqrt(rate / TRIALS));
+    }
+}
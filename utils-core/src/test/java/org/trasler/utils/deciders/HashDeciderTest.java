@@ -0,0 +1,174 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class HashDeciderTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int KEYS = 100000;
+
+    /**
+     * Keys, seeds and the low 64 bits of their MurmurHash3_x64_128, as given
+     * by the reference implementation. They cover empty, partial and whole
+     * 16-byte blocks, and UTF-8 sequences of every length.
+     */
+    private static final Object[][] VECTORS = {
+        {"", 0, 0x0000000000000000L},
+        {"", 42, 0xF02AA77DFA1B8523L},
+        {"a", 0, 0x85555565F6597889L},
+        {"hello", 0, 0xCBD8A7B341BD9B02L},
+        {"hello", 42, 0xC4B8B3C960AF6F08L},
+        {"user-12345", 0, 0xDAE99EDD45966B39L},
+        {"The quick brown fox jumps over the lazy dog", 0, 0xE34BBC7BBC071B6CL},
+        {"The quick brown fox jumps over the lazy dog", 42, 0x740DCF93FE0BD5D7L},
+        {"0123456789abcdef", 0, 0x4BE06D94CF4AD1A7L},
+        {"0123456789abcdefg", 0, 0x8E32612DAA45F9DEL},
+        {"caf\u00e9", 0, 0xA2E7C22A053364DDL},
+        {"\u20ac100", 0, 0x7E6B0F4A4C8E5B10L},
+        {"\ud83d\ude00 smile", 0, 0xB25EC3C46B5036E1L},
+        {"lone\ud800x", 0, 0x899C36FAA0173E38L},
+    };
+
+    @Test
+    public void testStringVectors() {
+        for (Object[] vector : VECTORS) {
+            assertEquals((String)vector[0], (long)vector[2], HashDecider.hash((String)vector[0], (int)vector[1]));
+            assertEquals((long)vector[2], HashDecider.hash(new StringBuilder((String)vector[0]), (int)vector[1]));
+        }
+    }
+
+    @Test
+    public void testLongVectors() {
+        assertEquals(0x28DF63B7CC57C3CBL, HashDecider.hash(0L, 0));
+        assertEquals(0x004403B7FB05C44AL, HashDecider.hash(1L, 0));
+        assertEquals(0xA0E4B27A1ABAED73L, HashDecider.hash(-1L, 0));
+        assertEquals(0x25EFB65A9B522AD1L, HashDecider.hash(123456789L, 0));
+    }
+
+    @Test
+    public void testSaltSeed() {
+        HashDecider decider = new HashDecider.Builder()
+                .withRate(0.5)
+                .withSalt("experiment")
+                .build();
+
+        // The seed is the low 32 bits of the hash of the salt, 0xFCD9CA9C.
+        for (int i = 0; i < 1000; i++) {
+            long hash = HashDecider.hash("user-" + i, 0xFCD9CA9C);
+            assertEquals(hash >>> 63 == 0L, decider.decide("user-" + i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate() {
+        new HashDecider.Builder()
+                .withRate(1.5)
+                .build();
+    }
+
+    @Test
+    public void testRate() {
+        HashDecider decider = new HashDecider.Builder()
+                .withRate(0.1)
+                .build();
+
+        int strings = 0;
+        int longs = 0;
+
+        for (int i = 0; i < KEYS; i++) {
+            strings += decider.decide("user-" + i) ? 1 : 0;
+            longs += decider.decide((long)i) ? 1 : 0;
+        }
+
+        assertEquals(0.1, (double)strings / KEYS, 0.005);
+        assertEquals(0.1, (double)longs / KEYS, 0.005);
+    }
+
+    @Test
+    public void testNested() {
+        HashDecider small = new HashDecider.Builder()
+                .withRate(0.1)
+                .withSalt("experiment")
+                .build();
+
+        HashDecider large = new HashDecider.Builder()
+                .withRate(0.2)
+                .withSalt("experiment")
+                .build();
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            assertTrue(!small.decide(key) || large.decide(key));
+        }
+    }
+
+    @Test
+    public void testSalt() {
+        HashDecider first = new HashDecider.Builder()
+                .withRate(0.5)
+                .withSalt("first")
+                .build();
+
+        HashDecider second = new HashDecider.Builder()
+                .withRate(0.5)
+                .withSalt("second")
+                .build();
+
+        int agreements = 0;
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            agreements += (first.decide(key) == second.decide(key)) ? 1 : 0;
+        }
+
+        // Independent samples agree half the time.
+        assertEquals(0.5, (double)agreements / KEYS, 0.01);
+    }
+
+    @Test
+    public void testJson() throws IOException {
+        HashDecider decider = objectMapper.readValue("{\"rate\":0.25,\"salt\":\"experiment\"}", HashDecider.class);
+
+        HashDecider expected = new HashDecider.Builder()
+                .withRate(0.25)
+                .withSalt("experiment")
+                .build();
+
+        assertEquals(0.25, decider.getRate(), 0.0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expected.decide("user-" + i), decider.decide("user-" + i));
+        }
+    }
+}
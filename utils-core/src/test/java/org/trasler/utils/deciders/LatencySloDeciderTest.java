@@ -0,0 +1,76 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.time.Duration;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class LatencySloDeciderTest {
+    private static final Duration SLO = Duration.ofMillis(100);
+
+    private final LatencySloDecider decider = new LatencySloDecider.Builder()
+            .withSlo(SLO)
+            .withRefreshInterval(1)
+            .build();
+
+    @Test
+    public void testWithinSlo() {
+        for (int i = 0; i < 1000; i++) {
+            decider.onSuccess(Duration.ofMillis(10).toNanos());
+        }
+
+        assertEquals(1.0, decider.getRate(), 0.0);
+        assertEquals(10.0, decider.getLatency(0.5) / 1e6, 1.25);
+    }
+
+    @Test
+    public void testApproachingSlo() {
+        for (int i = 0; i < 1000; i++) {
+            decider.onSuccess(Duration.ofMillis(75).toNanos());
+        }
+
+        assertEquals(0.5, decider.getRate(), 0.13);
+    }
+
+    @Test
+    public void testRecovery() {
+        for (int i = 0; i < 1000; i++) {
+            decider.onFailure();
+        }
+
+        assertEquals(0.0, decider.getRate(), 0.0);
+
+        // Once the failures have decayed below the tail, the rate recovers.
+        for (int i = 0; i < 10000; i++) {
+            decider.onSuccess(Duration.ofMillis(10).toNanos());
+        }
+
+        assertEquals(1.0, decider.getRate(), 0.0);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class ThompsonSelectorTest {
+    @Test
+    public void testFavoursHealthyArm() {
+        ThompsonSelector selector = new ThompsonSelector.Builder()
+                .withArms(3)
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            selector.onFailure(0);
+            selector.onSuccess(1);
+            selector.onFailure(2);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, selector.select());
+        }
+    }
+
+    @Test
+    public void testExplores() {
+        ThompsonSelector selector = new ThompsonSelector.Builder()
+                .withArms(2)
+                .build();
+
+        int[] counts = new int[2];
+
+        // With no observations, both arms are equally likely.
+        for (int i = 0; i < 1000; i++) {
+            counts[selector.select()]++;
+        }
+
+        assertTrue(counts[0] > 400);
+        assertTrue(counts[1] > 400);
+    }
+
+    @Test
+    public void testRecovery() {
+        ThompsonSelector selector = new ThompsonSelector.Builder()
+                .withArms(2)
+                .withHalflife(10.0)
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            selector.onFailure(0);
+        }
+
+        // Arm 0 is no longer selected, so only arm 1 reports, and then it
+        // fails in turn. Arm 0 has meanwhile drifted back to the prior, so it
+        // is now favoured.
+        for (int i = 0; i < 100; i++) {
+            selector.onFailure(1);
+        }
+
+        int[] counts = new int[2];
+
+        for (int i = 0; i < 1000; i++) {
+            counts[selector.select()]++;
+        }
+
+        assertTrue(counts[0] > 850);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidArm() {
+        new ThompsonSelector.Builder()
+                .withArms(2)
+                .build()
+                .onSuccess(2);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class TimedEwmaDeciderTest {
+    private static final Duration HALFLIFE = Duration.ofSeconds(10);
+
+    @Test
+    public void testDecayByTime() {
+        AtomicLong clock = new AtomicLong();
+
+        TimedEwmaDecider decider = new TimedEwmaDecider.Builder()
+                .withHalflife(HALFLIFE)
+                .withInitialRate(1.0)
+                .withNanoClock(clock::get)
+                .build();
+
+        decider.onFailure();
+        assertEquals(0.5, decider.getRate(), 1e-9);
+
+        // Both observations so far lose half their weight.
+        clock.addAndGet(HALFLIFE.toNanos());
+        decider.onFailure();
+        assertEquals(0.25, decider.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testIndependentOfVolume() {
+        AtomicLong clock = new AtomicLong();
+
+        TimedEwmaDecider decider = new TimedEwmaDecider.Builder()
+                .withHalflife(HALFLIFE)
+                .withInitialRate(1.0)
+                .withNanoClock(clock::get)
+                .build();
+
+        for (int i = 0; i < 100000; i++) {
+            decider.onFailure();
+        }
+
+        // After a long quiet period, a single success dominates the history.
+        clock.addAndGet(HALFLIFE.toNanos() * 20);
+        decider.onSuccess();
+        assertTrue(decider.getRate() > 0.9);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders;
+
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class TokenBucketDeciderTest {
+    private static final long NANOS_PER_TOKEN = 100_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testBurst() {
+        TokenBucketDecider decider = new TokenBucketDecider.Builder()
+                .withRate(10.0)
+                .withBurst(3.0)
+                .withNanoClock(clock::get)
+                .build();
+
+        assertTrue(decider.decide());
+        assertTrue(decider.decide());
+        assertTrue(decider.decide());
+        assertFalse(decider.decide());
+
+        clock.addAndGet(NANOS_PER_TOKEN);
+        assertTrue(decider.decide());
+        assertFalse(decider.decide());
+
+        // Idle time refills the bucket only up to its capacity.
+        clock.addAndGet(NANOS_PER_TOKEN * 100);
+        assertTrue(decider.decide());
+        assertTrue(decider.decide());
+        assertTrue(decider.decide());
+        assertFalse(decider.decide());
+    }
+
+    @Test
+    public void testRefundOnFailure() {
+        TokenBucketDecider decider = new TokenBucketDecider.Builder()
+                .withRate(10.0)
+                .withRefundOnFailure(true)
+                .withNanoClock(clock::get)
+                .build();
+
+        assertTrue(decider.decide());
+        assertFalse(decider.decide());
+
+        decider.onFailure();
+        assertTrue(decider.decide());
+
+        decider.onSuccess();
+        assertFalse(decider.decide());
+    }
+}
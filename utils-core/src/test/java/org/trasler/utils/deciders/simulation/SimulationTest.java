@@ -0,0 +1,179 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.deciders.simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.trasler.utils.deciders.ConcurrentEwmaDecider;
+import org.trasler.utils.deciders.Decider;
+import org.trasler.utils.deciders.RandomDecider;
+import org.trasler.utils.deciders.TokenBucketDecider;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class SimulationTest {
+    private static final long LATENCY = 1_000_000L;
+    private static final long PERIOD = 1_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testTrace() throws IOException {
+        Trace trace = Trace.open(writeTrace());
+
+        assertEquals(2100, trace.size());
+        assertFalse(Trace.isFailure(trace.getOutcome(0)));
+        assertTrue(Trace.isFailure(trace.getOutcome(1000)));
+        assertEquals(LATENCY, Trace.getLatencyNanos(trace.getOutcome(1000)));
+        assertEquals(1000 * PERIOD, trace.getTimestampNanos(1000));
+    }
+
+    @Test(expected = IOException.class)
+    public void testPartialRecord() throws IOException {
+        Path path = writeTrace();
+
+        Files.write(path, new byte[Long.BYTES], StandardOpenOption.APPEND);
+        Trace.open(path);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreasingTimestamp() throws IOException {
+        try (Trace.Writer writer = new Trace.Writer(folder.newFile().toPath())) {
+            writer.append(PERIOD, false, LATENCY);
+            writer.append(0, false, LATENCY);
+        }
+    }
+
+    @Test
+    public void testAcceptAll() throws IOException {
+        Simulation.Result result = newSimulation().run(clock -> new RandomDecider.Builder()
+                .withRate(1.0)
+                .build());
+
+        assertEquals(2100, result.getAccepted());
+        assertEquals(100, result.getWasted());
+        assertEquals(0, result.getMissed());
+        assertEquals(1, result.getOutages());
+        assertEquals(1, result.getRecoveries());
+        assertEquals(10.0, result.getMeanRecoveryEvents(), 1e-9);
+        assertEquals(9.0 * PERIOD, result.getMeanRecoveryNanos(), 1e-9);
+    }
+
+    @Test
+    public void testRejectAll() throws IOException {
+        Simulation.Result result = newSimulation().run(clock -> new RandomDecider.Builder()
+                .withRate(0.0)
+                .build());
+
+        assertEquals(0, result.getAccepted());
+        assertEquals(0, result.getWasted());
+        assertEquals(2000, result.getMissed());
+        assertEquals(1, result.getOutages());
+        assertEquals(0, result.getRecoveries());
+    }
+
+    @Test
+    public void testVirtualClock() throws IOException {
+        // One token every 10 events, as recorded, however fast the replay.
+        Simulation.Result result = newSimulation().run(clock -> new TokenBucketDecider.Builder()
+                .withRate(100.0)
+                .withNanoClock(clock)
+                .build());
+
+        assertEquals(210, result.getAccepted());
+    }
+
+    @Test
+    public void testSeed() throws IOException {
+        Function<LongSupplier, Decider> factory = clock -> new RandomDecider.Builder()
+                .withRate(0.5)
+                .build();
+
+        Simulation simulation = newSimulation();
+        long accepted = simulation.run(factory).getAccepted();
+
+        assertEquals(accepted, simulation.run(factory).getAccepted());
+        assertNotEquals(accepted, new Simulation.Builder()
+                .withTrace(Trace.open(writeTrace()))
+                .withSeed(1)
+                .build()
+                .run(factory)
+                .getAccepted());
+    }
+
+    @Test
+    public void testSweep() throws IOException {
+        Map<String, Function<LongSupplier, Decider>> candidates = new LinkedHashMap<>();
+
+        for (double halflife : new double[] { 5.0, 50.0 }) {
+            candidates.put("halflife:" + halflife, clock -> new ConcurrentEwmaDecider.Builder()
+                    .withHalflife(halflife)
+                    .withInitialRate(1.0)
+                    .withMinimumRate(0.05)
+                    .build());
+        }
+
+        Map<String, Simulation.Result> results = newSimulation().sweep(candidates, ForkJoinPool.commonPool());
+
+        assertEquals(candidates.keySet(), results.keySet());
+
+        // A shorter half-life backs off sooner, so wastes fewer calls.
+        assertTrue(results.get("halflife:5.0").getWasted() < results.get("halflife:50.0").getWasted());
+    }
+
+    private Simulation newSimulation() throws IOException {
+        return new Simulation.Builder()
+                .withTrace(Trace.open(writeTrace()))
+                .build();
+    }
+
+    private Path writeTrace() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("trace.bin");
+
+        try (Trace.Writer writer = new Trace.Writer(path)) {
+            for (int i = 0; i < 2100; i++) {
+                writer.append(i * PERIOD, i >= 1000 && i < 1100, LATENCY);
+            }
+        }
+
+        return path;
+    }
+}
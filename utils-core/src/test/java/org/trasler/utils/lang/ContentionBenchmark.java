@@ -0,0 +1,108 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Crude throughput benchmark for operations under contention, to show relative
+ * costs between implementations; use a dedicated harness for precise figures.
+ * It is not run by the tests, which it would slow down for no assurance.
+ * Instead, each benchmark is the main method of a class in the test sources
+ * named with the suffix Benchmark, run from the IDE or the command line.
+ *
+ * @author Simon Trasler
+ */
+public class ContentionBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ContentionBenchmark.class);
+
+    public static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    private static final long WARMUP_MILLIS = 100;
+    private static final long MEASURE_MILLIS = 400;
+
+    /**
+     * Run the operation on every thread count in turn, logging the throughput.
+     *
+     * @param name The name of the operation, for logging
+     * @param operation The operation to run repeatedly
+     */
+    public static void run(String name, Runnable operation) {
+        for (int threads : THREAD_COUNTS) {
+            measure(threads, WARMUP_MILLIS, operation);
+            long operations = measure(threads, MEASURE_MILLIS, operation);
+
+            logger.info("Benchmark name:{} threads:{} ops/ms:{}", name, threads, operations / MEASURE_MILLIS);
+        }
+    }
+
+    private static long measure(int threads, long millis, Runnable operation) {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder total = new LongAdder();
+
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(() -> {
+                long count = 0;
+
+                try {
+                    start.await();
+
+                    while (running.get()) {
+                        for (int j = 0; j < 256; j++) {
+                            operation.run();
+                        }
+                        count += 256;
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                total.add(count);
+                finish.countDown();
+            });
+
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        try {
+            start.countDown();
+            Thread.sleep(millis);
+            running.set(false);
+            finish.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return total.sum();
+    }
+}
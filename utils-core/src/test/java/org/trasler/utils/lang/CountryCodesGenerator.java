@@ -0,0 +1,103 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.TreeMap;
+
+/**
+ * Generator for the tables of codes in {@link CountryCodes}, from the locale
+ * data of the running JDK. Run it on a new JDK to check whether the committed
+ * tables still match; if not, it prints replacements to paste into
+ * CountryCodes. The check is deliberately not part of the test suite, so that
+ * the build does not depend on which JDK runs it. The committed tables were
+ * generated on JDK 21.
+ *
+ * @author Simon Trasler
+ */
+public class CountryCodesGenerator {
+    private static final int CODES_PER_LINE = 20;
+
+    /**
+     * Read the mapping from alpha-2 to alpha-3 codes from the JDK, sorted by
+     * alpha-2 code.
+     *
+     * @return The mapping
+     */
+    public static TreeMap<String, String> generate() {
+        TreeMap<String, String> codes = new TreeMap<>();
+
+        for (Locale locale : Locale.getAvailableLocales()) {
+            String alpha2 = locale.getCountry();
+
+            if (alpha2.length() == 2) {
+                try {
+                    String alpha3 = locale.getISO3Country();
+
+                    if (alpha3.length() == 3) {
+                        codes.put(alpha2, alpha3);
+                    }
+                } catch (MissingResourceException e) {
+                    // Suppress, as this exception will occur for some codes that
+                    // are reserved in ISO-3166 though not formally recognized,
+                    // e.g., CS for Czechoslovakia and XK for Kosovo.
+                }
+            }
+        }
+
+        return codes;
+    }
+
+    public static void main(String[] args) {
+        TreeMap<String, String> codes = generate();
+        String alpha2 = String.join("", codes.keySet());
+        String alpha3 = String.join("", codes.values());
+
+        if (alpha2.equals(CountryCodes.ALPHA2_CODES) && alpha3.equals(CountryCodes.ALPHA3_CODES)) {
+            System.out.println("CountryCodes matches JDK " + Runtime.version().feature());
+            return;
+        }
+
+        System.out.println("CountryCodes differs from JDK " + Runtime.version().feature() + ", replace its tables with:");
+        System.out.println();
+        System.out.println("    // Generated by CountryCodesGenerator on JDK " + Runtime.version().feature()
+                + ": every alpha-2 code in order,\n    // packed together, and the corresponding alpha-3 codes in the same order.");
+        System.out.println(format("ALPHA2_CODES", alpha2, 2));
+        System.out.println(format("ALPHA3_CODES", alpha3, 3));
+    }
+
+    private static String format(String name, String packed, int codeLength) {
+        int width = codeLength * CODES_PER_LINE;
+        StringBuilder builder = new StringBuilder("    static final String " + name + " =");
+
+        for (int i = 0; i < packed.length(); i += width) {
+            builder.append((i == 0) ? "\n            \"" : "\n            + \"")
+                    .append(packed, i, Math.min(i + width, packed.length()))
+                    .append('"');
+        }
+
+        return builder.append(';').toString();
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.util.HashSet;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class CountryCodesTest {
+    @Test
+    public void testTables() {
+        String alpha2 = CountryCodes.ALPHA2_CODES;
+        String alpha3 = CountryCodes.ALPHA3_CODES;
+
+        assertEquals(0, alpha2.length() % 2);
+        assertEquals(alpha2.length() / 2, alpha3.length() / 3);
+        assertEquals(0, alpha3.length() % 3);
+        assertTrue(alpha2.chars().allMatch(c -> c >= 'A' && c <= 'Z'));
+        assertTrue(alpha3.chars().allMatch(c -> c >= 'A' && c <= 'Z'));
+
+        // The generator emits the alpha-2 codes in order, so they are unique.
+        for (int i = 2; i < alpha2.length(); i += 2) {
+            assertTrue(alpha2.substring(i - 2, i).compareTo(alpha2.substring(i, i + 2)) < 0);
+        }
+
+        // A duplicate alpha-3 code would hide another country from lookups.
+        Set<String> codes = new HashSet<>();
+
+        for (int i = 0; i < alpha3.length(); i += 3) {
+            assertTrue(codes.add(alpha3.substring(i, i + 3)));
+        }
+    }
+
+    @Test
+    public void testMapping() {
+        assertEquals("GBR", CountryCodes.getAlpha3CountryCode("GB"));
+        assertEquals("GB", CountryCodes.getAlpha2CountryCode("GBR"));
+        assertNull(CountryCodes.getAlpha3CountryCode("GBR"));
+        assertNull(CountryCodes.getAlpha2CountryCode("GB"));
+        assertNull(CountryCodes.getAlpha3CountryCode("gb"));
+        assertNull(CountryCodes.getAlpha3CountryCode("XK"));
+    }
+}
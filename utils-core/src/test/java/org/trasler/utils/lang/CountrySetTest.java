@@ -0,0 +1,79 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class CountrySetTest {
+    @Test
+    public void testMembership() {
+        CountrySet set = CountrySet.of(List.of("fr", "DEU", "ZW", "XX"));
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(Country.of("FR")));
+        assertTrue(set.contains((Object)Country.of("DE")));
+        assertTrue(set.contains(Country.of("ZWE")));
+        assertFalse(set.contains(Country.of("GB")));
+        assertFalse(set.contains(Country.UNKNOWN));
+        assertFalse(set.contains((Object)"FR"));
+    }
+
+    @Test
+    public void testSetOperations() {
+        CountrySet a = CountrySet.of(Country.of("FR"), Country.of("DE"));
+        CountrySet b = CountrySet.of(Country.of("DE"), Country.of("GB"));
+
+        assertEquals(CountrySet.of(Country.of("FR"), Country.of("DE"), Country.of("GB")), a.union(b));
+        assertEquals(Set.of(Country.of("DE")), a.intersection(b));
+        assertEquals(a.intersection(b), Set.of(Country.of("DE")));
+    }
+
+    @Test
+    public void testIteration() {
+        Set<Country> expected = new HashSet<>();
+
+        for (String code : new String[] {
+                "AT", "BE", "BG", "HR", "CY", "CZ", "DK", "EE", "FI", "FR",
+                "DE", "GR", "HU", "IE", "IT", "LV", "LT", "LU", "MT", "NL",
+                "PL", "PT", "RO", "SK", "SI", "ES", "SE", "IS", "LI", "NO",
+                "GB"}) {
+            expected.add(Country.of(code));
+        }
+
+        assertEquals(expected, new HashSet<>(Country.GDPR_COUNTRIES));
+        assertEquals(expected.hashCode(), Country.GDPR_COUNTRIES.hashCode());
+        assertTrue(Country.GDPR_COUNTRIES.contains(Country.of("GB")));
+        assertFalse(Country.EEA_COUNTRIES.contains(Country.of("GB")));
+    }
+}
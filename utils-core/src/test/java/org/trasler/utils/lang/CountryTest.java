@@ -23,7 +23,12 @@
  */
 package org.trasler.utils.lang;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
 /**
@@ -34,6 +39,9 @@ public class CountryTest {
     @Test
     public void testEuCountriesValidity() {
         assertFalse(Country.EU_COUNTRIES.contains(Country.UNKNOWN));
+        assertEquals(27, Country.EU_COUNTRIES.size());
+        assertTrue(Country.EU_COUNTRIES.contains(Country.of("NL")));
+        assertFalse(Country.EU_COUNTRIES.contains(Country.of("NE")));
     }
 
     @Test
@@ -50,4 +58,38 @@ public class CountryTest {
     public void testGdprCountriesValidity() {
         assertFalse(Country.GDPR_COUNTRIES.contains(Country.UNKNOWN));
     }
+
+    @Test
+    public void testCanonical() {
+        Country country = Country.of("FR");
+
+        assertEquals("FR", country.getAlpha2());
+        assertEquals("FRA", country.getAlpha3());
+        assertSame(country, Country.of("fr"));
+        assertSame(country, Country.of("Fra"));
+    }
+
+    @Test
+    public void testUnknown() {
+        assertSame(Country.UNKNOWN, Country.of((String)null));
+        assertSame(Country.UNKNOWN, Country.of(""));
+        assertSame(Country.UNKNOWN, Country.of("F"));
+        assertSame(Country.UNKNOWN, Country.of("F["));
+        assertSame(Country.UNKNOWN, Country.of("F@A"));
+        assertSame(Country.UNKNOWN, Country.of("FRAN"));
+        assertSame(Country.UNKNOWN, Country.of("\u00e9s"));
+    }
+
+    @Test
+    public void testSlices() {
+        Country country = Country.of("DE");
+        byte[] bytes = "{\"country\":\"deu\",\"region\":\"de\"}".getBytes(StandardCharsets.US_ASCII);
+
+        assertSame(country, Country.of(new StringBuilder("De")));
+        assertSame(country, Country.of(bytes, 12, 3));
+        assertSame(country, Country.of(bytes, 27, 2));
+        assertSame(country, Country.of(ByteBuffer.wrap(bytes), 12, 3));
+        assertSame(Country.UNKNOWN, Country.of(bytes, 0, 2));
+        assertSame(Country.UNKNOWN, Country.of(bytes, 12, 4));
+    }
 }
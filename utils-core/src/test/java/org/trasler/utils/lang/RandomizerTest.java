@@ -0,0 +1,185 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import org.junit.After;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class RandomizerTest {
+    @After
+    public void tearDown() {
+        Randomizer.useDefault();
+    }
+
+    @Test
+    public void testBounds() {
+        assertFalse(Randomizer.decide(0.0));
+        assertTrue(Randomizer.decide(1.0));
+    }
+
+    @Test
+    public void testSeeded() throws InterruptedException {
+        assertArrayEquals(sample(42), sample(42));
+    }
+
+    @Test
+    public void testAlgorithm() {
+        Randomizer.useAlgorithm("L64X128MixRandom");
+        assertTrue(Randomizer.current().getClass().getSimpleName().startsWith("L64X128"));
+    }
+
+    @Test
+    public void testInjectedGenerator() {
+        SplittableRandom first = new SplittableRandom(7);
+        SplittableRandom second = new SplittableRandom(7);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(Randomizer.decide(0.5, first) == Randomizer.decide(0.5, second));
+        }
+    }
+
+    @Test
+    public void testScopedGenerator() {
+        SplittableRandom generator = new SplittableRandom(7);
+        SplittableRandom expected = new SplittableRandom(7);
+
+        Randomizer.withGenerator(generator, () -> {
+            assertTrue(Randomizer.current() == generator);
+
+            for (int i = 0; i < 100; i++) {
+                assertTrue(Randomizer.decide(0.5) == Randomizer.decide(0.5, expected));
+            }
+
+            return null;
+        });
+
+        assertFalse(Randomizer.current() == generator);
+    }
+
+    @Test
+    public void testDecideCount() {
+        assertEquals(0, Randomizer.decideCount(1000, 0.0));
+        assertEquals(1000, Randomizer.decideCount(1000, 1.0));
+
+        for (double rate : new double[] { 0.01, 0.3, 0.9 }) {
+            long total = 0;
+
+            for (int i = 0; i < 1000; i++) {
+                total += Randomizer.decideCount(1000, rate);
+            }
+
+            assertEquals(rate, total / 1e6, 0.005);
+        }
+    }
+
+    @Test
+    public void testDecideMask() {
+        assertEquals(0L, Randomizer.decideMask(64, 0.0));
+        assertEquals(-1L, Randomizer.decideMask(64, 1.0));
+        assertEquals(0xFFL, Randomizer.decideMask(8, 1.0));
+
+        int[] counts = new int[10];
+
+        for (int i = 0; i < 10000; i++) {
+            long mask = Randomizer.decideMask(10, 0.7);
+            assertEquals(0L, mask >>> 10);
+
+            for (int j = 0; j < 10; j++) {
+                counts[j] += (int)((mask >>> j) & 1L);
+            }
+        }
+
+        // Every position is equally likely to be positive.
+        for (int count : counts) {
+            assertEquals(0.7, count / 1e4, 0.03);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() {
+        Randomizer.decideCount(-5, 0.9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMask() {
+        Randomizer.decideMask(-1, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWideMask() {
+        Randomizer.decideMask(65, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBits() {
+        Randomizer.decideBits(new BitSet(), -1, 0.5);
+    }
+
+    @Test
+    public void testDecideBits() {
+        BitSet bits = new BitSet();
+        bits.set(200);
+
+        // Bits beyond the trials are left alone.
+        Randomizer.decideBits(bits, 100, 1.0);
+        assertEquals(100, bits.get(0, 100).cardinality());
+        assertTrue(bits.get(200));
+
+        long total = 0;
+        for (int i = 0; i < 1000; i++) {
+            Randomizer.decideBits(bits, 1000, 0.05);
+            total += bits.get(0, 1000).cardinality();
+        }
+
+        assertEquals(0.05, total / 1e6, 0.001);
+    }
+
+    private static boolean[] sample(long seed) throws InterruptedException {
+        boolean[] result = new boolean[100];
+
+        Randomizer.useSeed(seed);
+
+        // Run on a fresh thread, so it draws from the first generator split
+        // from the seeded root.
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = Randomizer.decide(0.5);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class StripedCounterTest {
+    @Test
+    public void testCount() {
+        StripedCounter counter = new StripedCounter();
+
+        counter.increment();
+        counter.increment(5);
+        counter.decrement();
+
+        assertEquals(5, counter.count());
+        assertEquals(5, counter.countThenReset());
+        assertEquals(0, counter.count());
+    }
+
+    @Test
+    public void testNoLostUpdates() throws InterruptedException {
+        int threads = 8;
+        int updates = 10000;
+
+        StripedCounter counter = new StripedCounter();
+
+        ConcurrentUpdates.run(threads, updates, counter::increment);
+
+        assertEquals(threads * updates, counter.count());
+    }
+}
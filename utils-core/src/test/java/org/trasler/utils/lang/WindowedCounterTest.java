@@ -0,0 +1,156 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.lang;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class WindowedCounterTest {
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    public void testRolling() {
+        AtomicLong clock = new AtomicLong();
+
+        WindowedCounter counter = new WindowedCounter.Builder()
+                .withWindow(Duration.ofSeconds(10))
+                .withBuckets(10)
+                .withNanoClock(clock::get)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            counter.add(i + 1);
+            clock.addAndGet(SECOND);
+        }
+
+        // The first bucket has now rolled out of the window, and the new one
+        // has only just started, so the window spans nine seconds.
+        assertEquals(54, counter.sum());
+        assertEquals(6.0, counter.rate(), 1e-6);
+
+        // The oldest bucket is reclaimed.
+        counter.increment();
+        assertEquals(55, counter.sum());
+
+        // After a long gap, nothing remains in the window.
+        clock.addAndGet(SECOND * 100);
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    public void testSteadyRate() {
+        AtomicLong clock = new AtomicLong();
+
+        WindowedCounter counter = new WindowedCounter.Builder()
+                .withWindow(Duration.ofSeconds(10))
+                .withBuckets(10)
+                .withNanoClock(clock::get)
+                .build();
+
+        // Ten events per second, spread evenly, read at every point in a
+        // bucket.
+        for (int i = 0; i < 300; i++) {
+            counter.increment();
+            clock.addAndGet(SECOND / 10);
+
+            if (i >= 100) {
+                assertEquals(10.0, counter.rate(), 0.2);
+            }
+        }
+    }
+
+    @Test
+    public void testNegativeClock() {
+        AtomicLong clock = new AtomicLong(-SECOND / 2);
+
+        WindowedCounter counter = new WindowedCounter.Builder()
+                .withWindow(Duration.ofSeconds(2))
+                .withBuckets(2)
+                .withNanoClock(clock::get)
+                .build();
+
+        counter.increment();
+        clock.addAndGet(SECOND);
+        counter.increment();
+        assertEquals(2, counter.sum());
+
+        // The event before zero falls in its own slice, and rolls out first.
+        clock.addAndGet(SECOND);
+        assertEquals(1, counter.sum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() {
+        new WindowedCounter.Builder()
+                .withWindow(Duration.ofSeconds(10))
+                .build()
+                .add(-1);
+    }
+
+    @Test
+    public void testSaturation() {
+        AtomicLong clock = new AtomicLong();
+
+        WindowedCounter counter = new WindowedCounter.Builder()
+                .withWindow(Duration.ofSeconds(10))
+                .withBuckets(10)
+                .withNanoClock(clock::get)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            counter.add(Integer.MAX_VALUE);
+        }
+
+        assertEquals(0xFFFFFFFFL, counter.sum());
+
+        // The bucket still belongs to its slice, so it rolls out on time.
+        clock.addAndGet(SECOND);
+        counter.increment();
+        assertEquals(0x100000000L, counter.sum());
+
+        clock.addAndGet(SECOND * 9);
+        assertEquals(1, counter.sum());
+    }
+
+    @Test
+    public void testNoLostUpdates() throws InterruptedException {
+        int threads = 8;
+        int updates = 10000;
+
+        WindowedCounter counter = new WindowedCounter.Builder()
+                .withWindow(Duration.ofSeconds(10))
+                .withNanoClock(() -> 0L)
+                .build();
+
+        ConcurrentUpdates.run(threads, updates, counter::increment);
+
+        assertEquals(threads * updates, counter.sum());
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.config;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Targeting accessor over an incoming HTTP request, so that a TrieConfig can be
+ * walked without first copying the request into a map. Keys take the form
+ * "header.NAME", "query.NAME" or "path.NAME".
+ * <p>
+ * Keys are parsed once per JVM, and header names are held in the optimized form
+ * that Vert.x hashes cheaply. The query string is decoded at most once per
+ * request, and resolved values are retained for the lifetime of the accessor.
+ * Instances are not thread-safe; use one per request, ideally via
+ * {@link #of(RoutingContext)}.
+ *
+ * @author Simon Trasler
+ */
+public class HttpRequestAccessor implements TargetingAccessor<String> {
+    private final HttpServerRequest request;
+    private final RoutingContext context;
+
+    private MultiMap params;
+    private Map<String, String> resolved;
+
+    public static final String HEADER_PREFIX = "header.";
+    public static final String QUERY_PREFIX = "query.";
+    public static final String PATH_PREFIX = "path.";
+
+    private static final String CONTEXT_KEY = HttpRequestAccessor.class.getName();
+
+    // Marker for a key that has been resolved and found to have no value.
+    private static final String MISSING = new String();
+
+    // Parsed keys, shared across requests. Keys are normally drawn from a fixed
+    // configuration; any beyond the limit are parsed on each use instead.
+    private static final Map<String, Key> KEYS = new ConcurrentHashMap<>();
+    private static final int MAXIMUM_KEYS = 4096;
+
+    public HttpRequestAccessor(RoutingContext context) {
+        this.request = context.request();
+        this.context = context;
+    }
+
+    public HttpRequestAccessor(HttpServerRequest request) {
+        this.request = request;
+        this.context = null;
+    }
+
+    /**
+     * Get the accessor for this routing context, creating it on first use. The
+     * accessor is stored in the context, so every handler on the route shares
+     * the same resolved values.
+     *
+     * @param context The routing context
+     * @return The accessor for the request
+     */
+    public static HttpRequestAccessor of(RoutingContext context) {
+        HttpRequestAccessor accessor = context.get(CONTEXT_KEY);
+
+        if (accessor == null) {
+            accessor = new HttpRequestAccessor(context);
+            context.put(CONTEXT_KEY, accessor);
+        }
+
+        return accessor;
+    }
+
+    @Override
+    public String get(String key) {
+        if (resolved != null) {
+            String value = resolved.get(key);
+
+            if (value != null) {
+                return (value == MISSING) ? null : value;
+            }
+        } else {
+            resolved = new HashMap<>();
+        }
+
+        String value = resolve(parsed(key));
+        resolved.put(key, (value != null) ? value : MISSING);
+
+        return value;
+    }
+
+    private String resolve(Key key) {
+        switch (key.source) {
+            case HEADER -> {
+                return request.headers().get(key.name);
+            }
+            case QUERY -> {
+                if (params == null) {
+                    // Decode the query string on first use only.
+                    params = (context != null) ? context.queryParams() : request.params();
+                }
+                return params.get(key.name);
+            }
+            case PATH -> {
+                return (context != null) ? context.pathParam(key.name.toString()) : null;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static Key parsed(String key) {
+        Key parsed = KEYS.get(key);
+
+        if (parsed == null) {
+            parsed = parse(key);
+
+            if (KEYS.size() < MAXIMUM_KEYS) {
+                KEYS.putIfAbsent(key, parsed);
+            }
+        }
+
+        return parsed;
+    }
+
+    private static Key parse(String key) {
+        if (key.startsWith(HEADER_PREFIX)) {
+            return new Key(Source.HEADER, HttpHeaders.createOptimized(key.substring(HEADER_PREFIX.length())));
+        } else if (key.startsWith(QUERY_PREFIX)) {
+            return new Key(Source.QUERY, key.substring(QUERY_PREFIX.length()));
+        } else if (key.startsWith(PATH_PREFIX)) {
+            return new Key(Source.PATH, key.substring(PATH_PREFIX.length()));
+        }
+
+        return new Key(Source.UNKNOWN, key);
+    }
+
+    private enum Source {
+        HEADER,
+        QUERY,
+        PATH,
+        UNKNOWN
+    }
+
+    private static class Key {
+        private final Source source;
+        private final CharSequence name;
+
+        private Key(Source source, CharSequence name) {
+            this.source = source;
+            this.name = name;
+        }
+    }
+}
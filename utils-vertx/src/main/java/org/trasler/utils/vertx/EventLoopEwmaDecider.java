@@ -0,0 +1,195 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.trasler.utils.vertx;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import java.util.concurrent.atomic.AtomicLong;
+import org.trasler.utils.deciders.ConcurrentEwmaDecider;
+import org.trasler.utils.deciders.Ewma;
+import org.trasler.utils.deciders.RateDecider;
+
+/**
+ * Variant of {@link ConcurrentEwmaDecider} for sharing across Vert.x event
+ * loops. Each event loop counts its observations and decides from its own
+ * copy of the rate, without touching shared memory. Every so many
+ * observations, the loop merges its counts into the shared average and
+ * refreshes its copy, so every loop converges on the same, global rate.
+ * <p>
+ * The per-loop state is held in a Netty FastThreadLocal, which is cheapest on
+ * Vert.x threads but works on any thread. Each instance claims a thread-local
+ * index that is never reclaimed, so instances must be long-lived, e.g., one
+ * per downstream service. Do not create them per key or per request; use the
+ * DeciderRegistry for many short-lived keys.
+ *
+ * @author Simon Trasler
+ */
+public class EventLoopEwmaDecider implements RateDecider {
+    private final double decay;
+    private final double minimumRate;
+    private final int mergeThreshold;
+
+    // The shared average, as the bits of a double.
+    private final AtomicLong rateBits;
+
+    private final FastThreadLocal<Local> locals = new FastThreadLocal<>() {
+        @Override
+        protected Local initialValue() {
+            return new Local(getRate());
+        }
+    };
+
+    private EventLoopEwmaDecider(Builder builder) {
+        this.decay = Ewma.decay(builder.halflife);
+        this.minimumRate = builder.minimumRate;
+        this.mergeThreshold = builder.mergeThreshold;
+        this.rateBits = new AtomicLong(Double.doubleToRawLongBits(builder.initialRate));
+    }
+
+    @Override
+    public double getDecisionRate() {
+        return Math.max(locals.get().rate, minimumRate);
+    }
+
+    @Override
+    public void onSuccess() {
+        Local local = locals.get();
+
+        local.successes++;
+        mergeIfDue(local);
+    }
+
+    @Override
+    public void onFailure() {
+        Local local = locals.get();
+
+        local.failures++;
+        mergeIfDue(local);
+    }
+
+    /**
+     * Get the shared moving average of the success rate, before the minimum
+     * rate is applied. Observations not yet merged are not included.
+     *
+     * @return The rate
+     */
+    public double getRate() {
+        return Double.longBitsToDouble(rateBits.get());
+    }
+
+    /**
+     * Merge the calling thread's pending observations into the shared
+     * average, and refresh its copy of the rate. Call this from a periodic
+     * timer on each event loop so that quiet loops do not lag behind.
+     */
+    public void merge() {
+        merge(locals.get());
+    }
+
+    private void mergeIfDue(Local local) {
+        if (local.successes + local.failures >= mergeThreshold) {
+            merge(local);
+        }
+    }
+
+    private void merge(Local local) {
+        long current;
+        double rate;
+
+        do {
+            current = rateBits.get();
+            rate = Ewma.fold(Double.longBitsToDouble(current), decay, local.successes, local.failures);
+        } while (!rateBits.compareAndSet(current, Double.doubleToRawLongBits(rate)));
+
+        local.successes = 0;
+        local.failures = 0;
+        local.rate = rate;
+    }
+
+    private static class Local {
+        private int successes;
+        private int failures;
+        private double rate;
+
+        private Local(double rate) {
+            this.rate = rate;
+        }
+    }
+
+    public static class Builder {
+        /**
+         * The half-life of any observation, measured in observations across
+         * all event loops. It must be a positive number. See
+         * {@link ConcurrentEwmaDecider.Builder}.
+         */
+        private double halflife;
+
+        /**
+         * The sample rate to start with. Defaults to 0.0.
+         */
+        private double initialRate;
+
+        /**
+         * The minimum rate for a positive decision. Defaults to 0.0.
+         */
+        private double minimumRate;
+
+        /**
+         * The number of observations an event loop accumulates before merging
+         * them into the shared average. Larger values reduce traffic between
+         * cores, at the cost of a delay in reacting to new observations.
+         * Defaults to 64.
+         */
+        private int mergeThreshold = 64;
+
+        public Builder withHalflife(double halflife) {
+            this.halflife = halflife;
+            return this;
+        }
+
+        public Builder withInitialRate(double initialRate) {
+            this.initialRate = initialRate;
+            return this;
+        }
+
+        public Builder withMinimumRate(double minimumRate) {
+            this.minimumRate = minimumRate;
+            return this;
+        }
+
+        public Builder withMergeThreshold(int mergeThreshold) {
+            this.mergeThreshold = mergeThreshold;
+            return this;
+        }
+
+        public EventLoopEwmaDecider build() {
+            if (!(halflife > 0.0)) {
+                throw new IllegalArgumentException("Halflife must be a positive number");
+            } else if (mergeThreshold < 1) {
+                throw new IllegalArgumentException("Merge threshold must be a positive number");
+            }
+
+            return new EventLoopEwmaDecider(this);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.trasler.utils.vertx;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.trasler.utils.deciders.Decider;
+import org.trasler.utils.lang.DecayingHistogram;
+
+/**
+ * Hedged execution of asynchronous requests. If a request has not completed
+ * after a delay, a second, identical request is sent, and whichever completes
+ * first wins. The delay tracks a high quantile of observed latency, so only
+ * the slow tail is hedged. Vert.x futures cannot be cancelled, so the losing
+ * request is ignored.
+ * <p>
+ * A Decider gates every hedge, to cap hedges at a budgeted fraction or rate of
+ * traffic, e.g., a RandomDecider or a TokenBucketDecider. The budget is
+ * charged when the Decider allows a hedge. The Decider is never told how the
+ * hedge fared, as that would let a Decider that refunds failures, or backs off
+ * on them, turn the budget into feedback on the outcome.
+ *
+ * @author Simon Trasler
+ */
+public class Hedger {
+    private final Vertx vertx;
+    private final Decider decider;
+    private final double quantile;
+    private final long minimumDelayNanos;
+    private final long maximumDelayNanos;
+    private final DecayingHistogram histogram;
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private Hedger(Builder builder) {
+        this.vertx = builder.vertx;
+        this.decider = builder.decider;
+        this.quantile = builder.quantile;
+        this.minimumDelayNanos = builder.minimumDelay.toNanos();
+        this.maximumDelayNanos = builder.maximumDelay.toNanos();
+        this.histogram = new DecayingHistogram(builder.halflife);
+    }
+
+    /**
+     * Execute the request, hedging it if it is slow.
+     *
+     * @param <T> The type of the result
+     * @param supplier Sends the request, and may be called twice; if it
+     * throws, that request fails with the exception
+     * @return The result of the first request to succeed, or the failure of
+     * the last request to fail
+     */
+    public <T> Future<T> execute(Supplier<Future<T>> supplier) {
+        Promise<T> promise = Promise.promise();
+        AtomicInteger outstanding = new AtomicInteger(1);
+
+        send(supplier, promise, outstanding);
+
+        // Only arm the timer once the request is out, so a request that has
+        // already failed is never hedged.
+        if (!promise.future().isComplete()) {
+            long timerId = vertx.setTimer(getDelayMillis(), id -> {
+                if (!promise.future().isComplete() && decider.decide()) {
+                    outstanding.incrementAndGet();
+                    send(supplier, promise, outstanding);
+                }
+            });
+
+            promise.future().onComplete(ar -> vertx.cancelTimer(timerId));
+        }
+
+        return promise.future();
+    }
+
+    /**
+     * Get the delay before a request is hedged, based on the latencies seen
+     * so far.
+     *
+     * @return The delay in milliseconds
+     */
+    public long getDelayMillis() {
+        long delay = histogram.quantile(quantile);
+
+        if (delay == 0L) {
+            // Nothing observed yet.
+            delay = maximumDelayNanos;
+        }
+
+        delay = Math.min(Math.max(delay, minimumDelayNanos), maximumDelayNanos);
+
+        // Vert.x timers have a resolution of one millisecond.
+        return Math.max(1L, delay / NANOS_PER_MILLI);
+    }
+
+    private <T> void send(Supplier<Future<T>> supplier, Promise<T> promise, AtomicInteger outstanding) {
+        long start = System.nanoTime();
+        Future<T> future;
+
+        try {
+            future = supplier.get();
+        } catch (RuntimeException e) {
+            // Count it as a failed request, so the other can still decide the
+            // outcome and the promise is always completed.
+            future = Future.failedFuture(e);
+        }
+
+        future.onComplete(ar -> complete(ar, start, promise, outstanding));
+    }
+
+    private <T> void complete(AsyncResult<T> ar, long start, Promise<T> promise, AtomicInteger outstanding) {
+        if (ar.succeeded()) {
+            histogram.record(System.nanoTime() - start);
+            promise.tryComplete(ar.result());
+        } else if (outstanding.decrementAndGet() == 0) {
+            promise.tryFail(ar.cause());
+        }
+    }
+
+    public static class Builder {
+        private Vertx vertx;
+
+        /**
+         * Decides whether each hedge may be sent, within a budget. It must be
+         * provided.
+         */
+        private Decider decider;
+
+        /**
+         * The quantile of latency after which a request is hedged. Defaults to
+         * 0.95.
+         */
+        private double quantile = 0.95;
+
+        /**
+         * The half-life of any latency observation, measured in observations.
+         * Defaults to 1000.
+         */
+        private double halflife = 1000.0;
+
+        /**
+         * The shortest delay before a hedge. Defaults to 1 millisecond.
+         */
+        private Duration minimumDelay = Duration.ofMillis(1);
+
+        /**
+         * The longest delay before a hedge, also used until latencies have
+         * been observed. Defaults to 1 second.
+         */
+        private Duration maximumDelay = Duration.ofSeconds(1);
+
+        public Builder withVertx(Vertx vertx) {
+            this.vertx = vertx;
+            return this;
+        }
+
+        public Builder withDecider(Decider decider) {
+            this.decider = decider;
+            return this;
+        }
+
+        public Builder withQuantile(double quantile) {
+            this.quantile = quantile;
+            return this;
+        }
+
+        public Builder withHalflife(double halflife) {
+            this.halflife = halflife;
+            return this;
+        }
+
+        public Builder withMinimumDelay(Duration minimumDelay) {
+            this.minimumDelay = minimumDelay;
+            return this;
+        }
+
+        public Builder withMaximumDelay(Duration maximumDelay) {
+            this.maximumDelay = maximumDelay;
+            return this;
+        }
+
+        public Hedger build() {
+            if (vertx == null || decider == null) {
+                throw new IllegalArgumentException("Vertx and Decider must be provided");
+            } else if (!(quantile > 0.0 && quantile <= 1.0)) {
+                throw new IllegalArgumentException("Quantile must be greater than 0.0 and at most 1.0");
+            } else if (minimumDelay.compareTo(maximumDelay) > 0) {
+                throw new IllegalArgumentException("Minimum delay must not exceed maximum delay");
+            }
+
+            return new Hedger(this);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * The MIT License
+ *
+ * Copyright 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.trasler.utils.config;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.client.WebClient;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class HttpRequestAccessorTest {
+    private static final String[] KEYS = {
+        "header.X-Country", "header.x-country", "query.size", "path.id",
+        "query.missing", "query.X-Country", "path.size", "header.size", "unknown"
+    };
+
+    private final Vertx vertx = Vertx.vertx();
+    private final Map<String, String> values = new HashMap<>();
+
+    private HttpServer server;
+    private WebClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        Router router = Router.router(vertx);
+
+        router.get("/items/:id").handler(context -> {
+            HttpRequestAccessor accessor = HttpRequestAccessor.of(context);
+
+            for (String key : KEYS) {
+                values.put(key, accessor.get(key));
+            }
+
+            // A key resolved to no value stays missing when looked up again.
+            values.put("missingAgain", accessor.get("query.missing"));
+
+            // The same accessor, with the same resolved values, for every
+            // handler on the route.
+            values.put("shared", String.valueOf(HttpRequestAccessor.of(context) == accessor));
+            values.put("cached", String.valueOf(accessor.get("path.id") == values.get("path.id")));
+
+            context.response().end();
+        });
+
+        server = vertx.createHttpServer()
+                .requestHandler(router)
+                .listen(0)
+                .toCompletionStage()
+                .toCompletableFuture()
+                .get(5, TimeUnit.SECONDS);
+
+        client = WebClient.create(vertx);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        int status = client.get(server.actualPort(), "localhost", "/items/42?size=large")
+                .putHeader("x-country", "FR")
+                .send()
+                .toCompletionStage()
+                .toCompletableFuture()
+                .get(5, TimeUnit.SECONDS)
+                .statusCode();
+
+        assertEquals(200, status);
+        assertEquals("FR", values.get("header.X-Country"));
+        assertEquals("large", values.get("query.size"));
+        assertEquals("42", values.get("path.id"));
+        assertNull(values.get("query.missing"));
+        assertNull(values.get("unknown"));
+        assertTrue(Boolean.parseBoolean(values.get("shared")));
+        assertTrue(Boolean.parseBoolean(values.get("cached")));
+        assertNull(values.get("missingAgain"));
+
+        // Header names are case-insensitive; each prefix reads only its own
+        // part of the request.
+        assertEquals("FR", values.get("header.x-country"));
+        assertNull(values.get("query.X-Country"));
+        assertNull(values.get("path.size"));
+        assertNull(values.get("header.size"));
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.trasler.utils.vertx;
+
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class EventLoopEwmaDeciderTest {
+    private static final double HALFLIFE = 10.0;
+
+    private final Vertx vertx = Vertx.vertx();
+
+    @After
+    public void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testMergeThreshold() {
+        EventLoopEwmaDecider decider = new EventLoopEwmaDecider.Builder()
+                .withHalflife(HALFLIFE)
+                .withInitialRate(1.0)
+                .withMergeThreshold(8)
+                .build();
+
+        for (int i = 0; i < 7; i++) {
+            decider.onFailure();
+        }
+
+        // Not yet merged.
+        assertEquals(1.0, decider.getRate(), 1e-9);
+
+        decider.onFailure();
+        assertEquals(Math.pow(2.0, -8 / HALFLIFE), decider.getRate(), 1e-9);
+
+        decider.onFailure();
+        decider.merge();
+        assertEquals(Math.pow(2.0, -9 / HALFLIFE), decider.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testAcrossEventLoops() throws Exception {
+        EventLoopEwmaDecider decider = new EventLoopEwmaDecider.Builder()
+                .withHalflife(HALFLIFE)
+                .withInitialRate(1.0)
+                .withMergeThreshold(4)
+                .build();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            Context context = vertx.getOrCreateContext();
+            Promise<Void> promise = Promise.promise();
+
+            context.runOnContext(v -> {
+                for (int j = 0; j < 10; j++) {
+                    decider.onFailure();
+                }
+
+                decider.merge();
+                promise.complete();
+            });
+
+            futures.add(promise.future().toCompletionStage().toCompletableFuture());
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Every observation is merged exactly once, regardless of the loop.
+        assertEquals(Math.pow(2.0, -40 / HALFLIFE), decider.getRate(), 1e-9);
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2025 Simon Trasler
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.trasler.utils.vertx;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+import org.trasler.utils.deciders.RandomDecider;
+import org.trasler.utils.deciders.TokenBucketDecider;
+
+/**
+ *
+ * @author Simon Trasler
+ */
+public class HedgerTest {
+    private final Vertx vertx = Vertx.vertx();
+
+    @After
+    public void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testHedgeWins() throws Exception {
+        Hedger hedger = hedger(1.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        // The first request is slow, the second is fast.
+        Future<String> future = hedger.execute(() -> delayed(calls.incrementAndGet() == 1 ? 5000 : 1, "result"));
+
+        assertEquals("result", future.toCompletionStage().toCompletableFuture().get(1, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testHedgeDenied() throws Exception {
+        Hedger hedger = hedger(0.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<String> future = hedger.execute(() -> delayed(calls.incrementAndGet() == 1 ? 100 : 1, "result"));
+
+        assertEquals("result", future.toCompletionStage().toCompletableFuture().get(1, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testLosingHedgeIsCharged() throws Exception {
+        Hedger hedger = new Hedger.Builder()
+                .withVertx(vertx)
+                .withDecider(new TokenBucketDecider.Builder()
+                        .withRate(0.001)
+                        .withRefundOnFailure(true)
+                        .build())
+                .withMinimumDelay(Duration.ofMillis(10))
+                .withMaximumDelay(Duration.ofMillis(10))
+                .build();
+
+        AtomicInteger calls = new AtomicInteger();
+
+        // The hedge is sent, and loses to the original request.
+        Future<String> first = hedger.execute(() -> delayed(calls.incrementAndGet() == 1 ? 100 : 5000, "first"));
+        assertEquals("first", first.toCompletionStage().toCompletableFuture().get(1, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+
+        // The hedge still spent the only token, so there is no second hedge.
+        Future<String> second = hedger.execute(() -> delayed(calls.incrementAndGet() == 3 ? 100 : 1, "second"));
+        assertEquals("second", second.toCompletionStage().toCompletableFuture().get(1, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testRequestThrows() throws Exception {
+        Hedger hedger = hedger(1.0);
+        AtomicInteger calls = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException();
+
+        Future<String> future = hedger.execute(() -> {
+            calls.incrementAndGet();
+            throw failure;
+        });
+
+        assertTrue(future.failed());
+        assertSame(failure, future.cause());
+
+        // Nothing is left to hedge.
+        Thread.sleep(50);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testHedgeThrows() throws Exception {
+        Hedger hedger = hedger(1.0);
+        AtomicInteger calls = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException();
+
+        // The hedge throws, so the outcome rests on the original request.
+        Future<String> future = hedger.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                Promise<String> promise = Promise.promise();
+                vertx.setTimer(100, id -> promise.fail(failure));
+                return promise.future();
+            }
+
+            throw new IllegalStateException();
+        });
+
+        try {
+            future.toCompletionStage().toCompletableFuture().get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testDelayFromLatency() throws Exception {
+        Hedger hedger = new Hedger.Builder()
+                .withVertx(vertx)
+                .withDecider(new RandomDecider.Builder()
+                        .withRate(1.0)
+                        .build())
+                .withMinimumDelay(Duration.ofMillis(1))
+                .withMaximumDelay(Duration.ofSeconds(5))
+                .build();
+
+        // Until latencies are observed, the delay is the maximum.
+        assertEquals(5000, hedger.getDelayMillis());
+
+        for (int i = 0; i < 10; i++) {
+            Future<String> future = hedger.execute(() -> delayed(20, "warm"));
+            assertEquals("warm", future.toCompletionStage().toCompletableFuture().get(1, TimeUnit.SECONDS));
+        }
+
+        long delay = hedger.getDelayMillis();
+        assertTrue(delay >= 15 && delay < 1000);
+
+        // The hedge goes out after the learned delay, well before the maximum.
+        AtomicInteger calls = new AtomicInteger();
+        Future<String> future = hedger.execute(() -> delayed(calls.incrementAndGet() == 1 ? 10_000 : 1, "result"));
+
+        assertEquals("result", future.toCompletionStage().toCompletableFuture().get(2, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+
+    private Hedger hedger(double rate) {
+        return new Hedger.Builder()
+                .withVertx(vertx)
+                .withDecider(new RandomDecider.Builder()
+                        .withRate(rate)
+                        .build())
+                .withMinimumDelay(Duration.ofMillis(10))
+                .withMaximumDelay(Duration.ofMillis(10))
+                .build();
+    }
+
+    private Future<String> delayed(long millis, String result) {
+        Promise<String> promise = Promise.promise();
+        vertx.setTimer(millis, id -> promise.complete(result));
+        return promise.future();
+    }
+}